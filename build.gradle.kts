@@ -18,6 +18,16 @@ repositories {
 	mavenCentral()
 }
 
+sourceSets {
+	create("jmh") {
+		compileClasspath += sourceSets.main.get().output
+		runtimeClasspath += sourceSets.main.get().output
+	}
+}
+
+configurations["jmhImplementation"].extendsFrom(configurations.implementation.get())
+configurations["jmhCompileOnly"].extendsFrom(configurations.compileOnlyApi.get())
+
 dependencies {
 	compileOnlyApi("org.jetbrains:annotations:23.0.0")
 	implementation("net.kyori:adventure-api:4.10.1")
@@ -25,12 +35,28 @@ dependencies {
 	testImplementation("net.kyori:adventure-nbt:4.10.1")
 	testImplementation("org.junit.jupiter:junit-jupiter-api:5.8.2")
 	testRuntimeOnly("org.junit.jupiter:junit-jupiter-engine:5.8.2")
+
+	"jmhImplementation"("org.openjdk.jmh:jmh-core:1.35")
+	"jmhAnnotationProcessor"("org.openjdk.jmh:jmh-generator-annprocess:1.35")
+}
+
+tasks.withType<JavaCompile> {
+	options.encoding = "UTF-8"
 }
 
 tasks.withType<Test> {
 	useJUnitPlatform()
 }
 
+// Usage: ./gradlew jmh -PjmhArgs="BinaryComponentSerializerBenchmark -prof gc"
+tasks.register<JavaExec>("jmh") {
+	group = "verification"
+	description = "Runs the JMH benchmarks"
+	classpath = sourceSets["jmh"].runtimeClasspath
+	mainClass.set("org.openjdk.jmh.Main")
+	args = (project.findProperty("jmhArgs") as String? ?: "").split(" ").filter { it.isNotBlank() }
+}
+
 publishing {
 	publications {
 		create<MavenPublication>("maven") {
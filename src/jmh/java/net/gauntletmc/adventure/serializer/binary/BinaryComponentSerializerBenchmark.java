@@ -0,0 +1,83 @@
+package net.gauntletmc.adventure.serializer.binary;
+
+import net.kyori.adventure.text.Component;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encode/decode throughput of {@link BinaryComponentSerializer} for every {@link Workload}
+ * Run with {@code -prof gc} to see the allocation rate, the encoded size of each workload is printed during setup
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BinaryComponentSerializerBenchmark {
+
+    @Param
+    public Workload workload;
+
+    private final BinaryComponentSerializer serializer = BinaryComponentSerializer.INSTANCE;
+
+    private Component component;
+    private byte[] bytes;
+
+    private ByteArrayOutputStream baos;
+    private ByteBuffer buffer;
+
+    @Setup
+    public void setup() throws IOException {
+        this.component = this.workload.create();
+        this.bytes = this.serializer.serialize(this.component);
+        this.baos = new ByteArrayOutputStream(this.bytes.length);
+        this.buffer = ByteBuffer.allocateDirect(this.bytes.length);
+
+        if (!this.component.equals(this.serializer.deserialize(this.bytes))) {
+            throw new IllegalStateException("Workload " + this.workload + " doesn't survive a round trip");
+        }
+
+        System.out.println(this.workload + ": " + this.bytes.length + " bytes/op");
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return this.serializer.serialize(this.component);
+    }
+
+    @Benchmark
+    public Component deserialize() throws IOException {
+        return this.serializer.deserialize(this.bytes);
+    }
+
+    @Benchmark
+    public int serializeComponent() throws IOException {
+        this.baos.reset();
+        this.serializer.serializeComponent(this.component, new DataOutputStream(this.baos));
+        return this.baos.size();
+    }
+
+    @Benchmark
+    public Component deserializeComponent() throws IOException {
+        return this.serializer.deserializeComponent(new DataInputStream(new ByteArrayInputStream(this.bytes)));
+    }
+
+    @Benchmark
+    public int serializeDirectBuffer() throws IOException {
+        this.buffer.clear();
+        this.serializer.serialize(this.component, this.buffer);
+        return this.buffer.position();
+    }
+
+    @Benchmark
+    public Component deserializeDirectBuffer() throws IOException {
+        this.buffer.clear();
+        this.buffer.put(this.bytes).flip();
+        return this.serializer.deserialize(this.buffer);
+    }
+
+}
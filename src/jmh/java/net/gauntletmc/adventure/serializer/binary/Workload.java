@@ -0,0 +1,120 @@
+package net.gauntletmc.adventure.serializer.binary;
+
+import net.kyori.adventure.key.Key;
+import net.kyori.adventure.nbt.api.BinaryTagHolder;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.ComponentLike;
+import net.kyori.adventure.text.TextComponent;
+import net.kyori.adventure.text.event.ClickEvent;
+import net.kyori.adventure.text.event.HoverEvent;
+import net.kyori.adventure.text.format.NamedTextColor;
+import net.kyori.adventure.text.format.TextColor;
+import net.kyori.adventure.text.format.TextDecoration;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Fixed set of components used by the benchmarks
+ * Every workload is deterministic so results are comparable between runs
+ */
+public enum Workload {
+
+    /**
+     * A typical chat line: rank prefix, name with hover, separator and message
+     */
+    CHAT_LINE {
+        @Override
+        Component create() {
+            return Component.text()
+                    .append(Component.text("[Admin] ", NamedTextColor.RED))
+                    .append(Component.text("Moulberry", NamedTextColor.GOLD)
+                            .hoverEvent(HoverEvent.showText(Component.text("Click to message", NamedTextColor.GRAY)))
+                            .clickEvent(ClickEvent.suggestCommand("/msg Moulberry ")))
+                    .append(Component.text(": ", NamedTextColor.DARK_GRAY))
+                    .append(Component.text("has anyone seen the new dungeon boss yet? it hits really hard", NamedTextColor.WHITE))
+                    .build();
+        }
+    },
+
+    /**
+     * Deeply nested tree where every level changes style, ending in a gradient
+     */
+    NESTED_STYLED {
+        @Override
+        Component create() {
+            TextComponent.Builder gradient = Component.text();
+            String text = "Legendary Dragon Sword";
+            for (int i = 0; i < text.length(); i++) {
+                int step = i * 255 / text.length();
+                gradient.append(Component.text(String.valueOf(text.charAt(i)), TextColor.color(255, step, 255 - step)));
+            }
+
+            Component current = gradient.build();
+            TextDecoration[] decorations = TextDecoration.values();
+            for (int depth = 0; depth < 24; depth++) {
+                current = Component.text()
+                        .content("level " + depth + " ")
+                        .color(TextColor.color(depth * 10, 0x80, 0xff - depth * 10))
+                        .decoration(decorations[depth % decorations.length], depth % 2 == 0)
+                        .append(current)
+                        .append(Component.text(" | ", NamedTextColor.DARK_GRAY))
+                        .build();
+            }
+            return current;
+        }
+    },
+
+    /**
+     * Translatable message with many styled arguments
+     */
+    TRANSLATABLE {
+        @Override
+        Component create() {
+            List<ComponentLike> args = new ArrayList<>();
+            for (int i = 0; i < 12; i++) {
+                args.add(Component.translatable("item.minecraft.diamond_sword", NamedTextColor.AQUA,
+                        Component.text(i)));
+                args.add(Component.text("player" + i, NamedTextColor.YELLOW));
+            }
+            return Component.translatable()
+                    .key("commands.scoreboard.players.list.entity.success")
+                    .color(NamedTextColor.GRAY)
+                    .args(args)
+                    .build();
+        }
+    },
+
+    /**
+     * Lore style list where every line carries a show item or show entity hover
+     */
+    HOVER_HEAVY {
+        @Override
+        Component create() {
+            TextComponent.Builder builder = Component.text();
+            for (int i = 0; i < 16; i++) {
+                if (i % 2 == 0) {
+                    builder.append(Component.text("[Diamond Sword x" + (i + 1) + "]", NamedTextColor.AQUA)
+                            .hoverEvent(HoverEvent.showItem(
+                                    Key.key(Key.MINECRAFT_NAMESPACE, "diamond_sword"),
+                                    i + 1,
+                                    BinaryTagHolder.binaryTagHolder("{display:{Name:'{\"text\":\"Sword " + i + "\"}'},Enchantments:[{id:\"minecraft:sharpness\",lvl:5s}]}")
+                            )));
+                } else {
+                    builder.append(Component.text("[Pig " + i + "]", NamedTextColor.LIGHT_PURPLE)
+                            .hoverEvent(HoverEvent.showEntity(HoverEvent.ShowEntity.of(
+                                    Key.key(Key.MINECRAFT_NAMESPACE, "pig"),
+                                    new UUID(0x1234L * i, 0x5678L * i),
+                                    Component.text("Dolores " + i, NamedTextColor.GOLD)
+                            ))));
+                }
+                builder.append(Component.newline());
+            }
+            return builder.build();
+        }
+    };
+
+    abstract Component create();
+
+}
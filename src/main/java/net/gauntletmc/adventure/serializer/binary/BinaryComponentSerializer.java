@@ -1,26 +1,263 @@
 package net.gauntletmc.adventure.serializer.binary;
 
 import net.kyori.adventure.text.Component;
+import org.jetbrains.annotations.Nullable;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.util.List;
 
-public sealed interface BinaryComponentSerializer permits BinaryComponentSerializerImpl {
+public sealed interface BinaryComponentSerializer permits BinaryComponentSerializerImpl, CachingBinaryComponentSerializer {
 
-    BinaryComponentSerializer INSTANCE = new BinaryComponentSerializerImpl();
+    BinaryComponentSerializer INSTANCE = builder().build();
 
-    default byte[] serialize(Component value) throws IOException {
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        serializeComponent(value, new DataOutputStream(baos));
-        return baos.toByteArray();
+    static Builder builder() {
+        return new BinaryComponentSerializerImpl.BuilderImpl();
     }
 
+    byte[] serialize(Component value) throws IOException;
+
     default Component deserialize(byte[] bytes) throws IOException {
-        ByteArrayInputStream bais = new ByteArrayInputStream(bytes);
-        return deserializeComponent(new DataInputStream(bais));
+        return deserialize(ByteBuffer.wrap(bytes));
     }
 
+    /**
+     * Writes the component into a heap or direct buffer, starting at its position and advancing it
+     *
+     * @throws java.nio.BufferOverflowException if the buffer doesn't have enough space remaining
+     */
+    void serialize(Component value, ByteBuffer buffer) throws IOException;
+
+    /**
+     * Reads one component from a heap or direct buffer, starting at its position and advancing it
+     */
+    Component deserialize(ByteBuffer buffer) throws IOException;
+
+    /**
+     * Computes exactly how many bytes {@link #serializeComponent(Component, DataOutputStream)} would write for the component
+     * Useful for writing a length prefix or reserving buffer capacity before encoding
+     */
+    int serializedSize(Component value) throws IOException;
+
     void serializeComponent(Component value, DataOutputStream output) throws IOException;
 
     Component deserializeComponent(DataInputStream input) throws IOException;
 
+    /**
+     * Writes all components into one frame with a single header, the string, style and subtree tables
+     * are shared by the whole batch so later components can reference strings and styles of earlier ones
+     */
+    byte[] serializeAll(List<Component> values) throws IOException;
+
+    default List<Component> deserializeAll(byte[] bytes) throws IOException {
+        return deserializeAll(ByteBuffer.wrap(bytes));
+    }
+
+    /**
+     * Reads a frame written by {@link #serializeAll(List)}, starting at the buffer's position and advancing it
+     */
+    List<Component> deserializeAll(ByteBuffer buffer) throws IOException;
+
+    /**
+     * Reports the contents of the encoded component at the buffer's position to the visitor, without building it
+     * Only the strings passed to the visitor are decoded, the buffer is advanced past the component afterwards
+     * Back-referenced subtrees and styles are reported again every time, payloads expanding to far more components
+     * than they have bytes fail with an {@link IllegalStateException}
+     */
+    void visit(ByteBuffer buffer, ComponentVisitor visitor) throws IOException;
+
+    default void visit(byte[] bytes, ComponentVisitor visitor) throws IOException {
+        visit(ByteBuffer.wrap(bytes), visitor);
+    }
+
+    /**
+     * Advances the buffer past exactly one encoded component, checking its structure on the way
+     * No strings, keys or components are created, which makes this suitable for splitting concatenated payloads
+     *
+     * @return the number of bytes skipped
+     * @throws IOException if the buffer ends before the component does
+     * @throws IllegalArgumentException or {@link IllegalStateException} if the payload is malformed
+     */
+    int skipComponent(ByteBuffer buffer) throws IOException;
+
+    /**
+     * @return whether the bytes are exactly one well-formed encoded component, see {@link #skipComponent(ByteBuffer)}
+     */
+    default boolean validate(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        try {
+            skipComponent(buffer);
+        } catch (IOException | IllegalArgumentException | IllegalStateException e) {
+            return false;
+        }
+        return !buffer.hasRemaining();
+    }
+
+    /**
+     * Extracts the plain text of the encoded component at the buffer's position, matching adventure's plain text serializer:
+     * text content, keybinds, translation keys and selector patterns, in order
+     * Styles, hover and click events and NBT fields are skipped without being decoded, the buffer is advanced past the component
+     */
+    String plainText(ByteBuffer buffer) throws IOException;
+
+    default String plainText(byte[] bytes) throws IOException {
+        return plainText(ByteBuffer.wrap(bytes));
+    }
+
+    /**
+     * Creates a view of the encoded component at the buffer's position, reading its parts only when asked for
+     * The buffer's position isn't changed
+     */
+    EncodedComponentView view(ByteBuffer buffer) throws IOException;
+
+    default EncodedComponentView view(byte[] bytes) throws IOException {
+        return view(ByteBuffer.wrap(bytes));
+    }
+
+    /**
+     * Creates a decoder for payloads arriving in arbitrary chunks, for example from a non-blocking channel
+     */
+    StreamingComponentDecoder streamingDecoder();
+
+    interface Builder {
+
+        /**
+         * Shares decoded instances of short repetitive strings and {@link net.kyori.adventure.key.Key}s
+         * (namespaces, fonts, entity types, translation keys) between all components decoded by the serializer
+         *
+         * @param maxEntries size of the bounded cache, 0 disables it (the default), at most 2^30
+         */
+        Builder internStrings(int maxEntries);
+
+        /**
+         * Writes every distinct string only once per payload, repeats become a small back-reference
+         * Typical repeats are key namespaces, fonts, click values, translation keys and sibling text
+         * Payloads using this can only be decoded by a version of this library supporting it
+         */
+        Builder stringTable(boolean stringTable);
+
+        /**
+         * Writes every distinct {@link net.kyori.adventure.text.format.Style} only once per payload,
+         * siblings repeating an earlier style become a back-reference and decode to the same instance
+         * Payloads using this can only be decoded by a version of this library supporting it
+         */
+        Builder styleTable(boolean styleTable);
+
+        /**
+         * Writes strings found in the static dictionary as a small index, this implies {@link #stringTable(boolean)}
+         * Decoders resolve the dictionary by the id in the payload, {@link StringDictionary#MINECRAFT} is always known,
+         * other dictionaries only to serializers configured with them
+         *
+         * @param dictionary the dictionary, or null to disable
+         */
+        Builder dictionary(@Nullable StringDictionary dictionary);
+
+        /**
+         * Writes every distinct subtree only once per payload, a later equal subtree (repeated separators,
+         * shared prefixes, identical hover texts) becomes a back-reference and decodes to the same instance
+         * Payloads using this can only be decoded by a version of this library supporting it
+         */
+        Builder subtreeTable(boolean subtreeTable);
+
+        /**
+         * Writes the style of every child as a delta against the style it inherits from its parent, leaving out
+         * the decorations, color, font, insertion and events it repeats (typical for MiniMessage output)
+         * The decoded tree is exactly the same, every component still gets its complete own style
+         * Payloads using this can only be decoded by a version of this library supporting it
+         */
+        Builder styleDelta(boolean styleDelta);
+
+        /**
+         * Writes the 16 {@link net.kyori.adventure.text.format.NamedTextColor}s as a single byte index, and every other
+         * color only once per payload, repeats (gradients, alternating highlights) becoming a back-reference
+         * Named colors decode to the canonical instances
+         * Payloads using this can only be decoded by a version of this library supporting it
+         */
+        Builder colorPalette(boolean colorPalette);
+
+        /**
+         * Remembers the encoding of recently serialized component instances, so serializing the same instance again
+         * (broadcast messages, scoreboard titles) costs an identity lookup instead of walking the tree
+         * Components are held weakly, least recently used encodings are evicted once the budget is exceeded
+         *
+         * @param maxBytes total size of the cached encodings, 0 disables the cache (the default)
+         * @see CachingBinaryComponentSerializer#encodeCacheStats()
+         */
+        Builder encodeCache(long maxBytes);
+
+        /**
+         * Remembers the components decoded from recently seen payloads, so decoding the same payload again
+         * (one broadcast received by many connections) returns the already built instance
+         * Payloads are hashed and compared by content, only {@link #deserialize(byte[])} consults the cache
+         *
+         * @param maxBytes total size of the cached payloads, 0 disables the cache (the default)
+         * @see CachingBinaryComponentSerializer#decodeCacheStats()
+         */
+        Builder decodeCache(long maxBytes);
+
+        /**
+         * Limits how deeply components may be nested (children, translatable arguments, separators, hover texts),
+         * the root being at depth 1
+         * Deeper trees fail to serialize, deserialize and to be read in place ({@link #visit(ByteBuffer, ComponentVisitor)},
+         * {@link #skipComponent(ByteBuffer)}, {@link #plainText(ByteBuffer)}, views), none of which recurse,
+         * so any depth within the limit is fine
+         *
+         * @param maxDepth the limit, unlimited by default
+         */
+        Builder maxDepth(int maxDepth);
+
+        /**
+         * Limits how many components a single component may consist of, itself included
+         * Larger trees fail to serialize, deserialize and to be read in place
+         *
+         * @param maxNodes the limit, unlimited by default
+         */
+        Builder maxNodes(int maxNodes);
+
+        /**
+         * Bounds what decoding a single payload may consume, for payloads from untrusted sources
+         * {@link #maxDepth(int)} and {@link #maxNodes(int)} apply to decoding as well, the stricter limit wins
+         *
+         * @param limits the limits, {@link DecoderLimits#UNLIMITED} by default
+         */
+        Builder decoderLimits(DecoderLimits limits);
+
+        /**
+         * Deflates payloads larger than the threshold (lore, books, large tooltips), short chat lines stay as they are
+         * A payload is only replaced by its compressed frame if that is smaller, decoders recognize either
+         * Payloads using this can only be decoded by a version of this library supporting it
+         *
+         * @param threshold payload size in bytes above which compression is tried, 0 disables it (the default)
+         */
+        Builder compression(int threshold);
+
+        /**
+         * Primes compression with a preset dictionary, which helps the small payloads above the threshold most
+         * Decoders can only inflate frames compressed with the dictionary they are configured with
+         *
+         * @param dictionary the dictionary, or null to compress without one
+         * @see CompressionDictionary#train(int, java.util.Collection, int)
+         */
+        Builder compressionDictionary(@Nullable CompressionDictionary dictionary);
+
+        /**
+         * Compacts components before writing them: adjacent text with the same effective style becomes one component,
+         * text rendering nothing is dropped and wrappers without text of their own are replaced by their children
+         * The decoded component renders the same but isn't equal to the serialized one, and compacting costs a walk
+         * of the tree, worth it for generated components with many redundant nodes
+         */
+        Builder compact(boolean compact);
+
+        /**
+         * Writes components of the codec's type with the codec, instead of failing to serialize them
+         * Decoders need the same codec registered to build or visit such components
+         *
+         * @throws IllegalArgumentException on {@link #build()} if two codecs have the same id
+         */
+        Builder codec(ComponentCodec<?> codec);
+
+        BinaryComponentSerializer build();
+
+    }
+
 }
@@ -5,6 +5,7 @@ import net.kyori.adventure.nbt.api.BinaryTagHolder;
 import net.kyori.adventure.text.*;
 import net.kyori.adventure.text.event.ClickEvent;
 import net.kyori.adventure.text.event.HoverEvent;
+import net.kyori.adventure.text.format.NamedTextColor;
 import net.kyori.adventure.text.format.Style;
 import net.kyori.adventure.text.format.TextColor;
 import net.kyori.adventure.text.format.TextDecoration;
@@ -13,38 +14,58 @@ import org.jetbrains.annotations.Range;
 
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
+import java.io.EOFException;
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
-import java.util.UUID;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /*package-private*/ final class BinaryComponentSerializerImpl implements BinaryComponentSerializer {
 
-    private static final byte VERSION = 1;
-
-    private static final byte COMPONENT_TEXT =         0;
-    private static final byte COMPONENT_TRANSLATABLE = 1;
-    private static final byte COMPONENT_SCORE =        2;
-    private static final byte COMPONENT_SELECTOR =     3;
-    private static final byte COMPONENT_KEYBIND =      4;
-    private static final byte COMPONENT_BLOCK_NBT =    5;
-    private static final byte COMPONENT_ENTITY_NBT =   6;
-    private static final byte COMPONENT_STORAGE_NBT =  7;
+    static final byte VERSION = 1;
+    // Followed by a varint of FLAG_* bits saying which optional encodings the payload uses
+    static final byte VERSION_FLAGS = 2;
+    // Followed by a compressed frame holding a complete payload of one of the other versions, see Compression
+    static final byte VERSION_COMPRESSED = 3;
+
+    static final int FLAG_STRING_TABLE = 1 << 0;
+    static final int FLAG_STYLE_TABLE =  1 << 1;
+    // Followed by the varint dictionary id, requires FLAG_STRING_TABLE
+    static final int FLAG_DICTIONARY =   1 << 2;
+    static final int FLAG_SUBTREE_TABLE = 1 << 3;
+    static final int FLAG_STYLE_DELTA =   1 << 4;
+    static final int FLAG_COLOR_PALETTE = 1 << 5;
+
+    private static final int SUPPORTED_FLAGS = FLAG_STRING_TABLE | FLAG_STYLE_TABLE | FLAG_DICTIONARY | FLAG_SUBTREE_TABLE | FLAG_STYLE_DELTA
+            | FLAG_COLOR_PALETTE;
+
+    static final byte COMPONENT_TEXT =         0;
+    static final byte COMPONENT_TRANSLATABLE = 1;
+    static final byte COMPONENT_SCORE =        2;
+    static final byte COMPONENT_SELECTOR =     3;
+    static final byte COMPONENT_KEYBIND =      4;
+    static final byte COMPONENT_BLOCK_NBT =    5;
+    static final byte COMPONENT_ENTITY_NBT =   6;
+    static final byte COMPONENT_STORAGE_NBT =  7;
+    // Back-reference to an earlier subtree of the same payload, only with FLAG_SUBTREE_TABLE
+    static final byte COMPONENT_REFERENCE =    8;
+    // Written by a registered ComponentCodec, followed by the varint codec id, the varint length of the content and the content
+    static final byte COMPONENT_CUSTOM =       9;
 
     private static final byte STYLE_COLOR_SHIFT =      0;
     private static final byte STYLE_FONT_SHIFT =       1;
     private static final byte STYLE_INSERTION_SHIFT =  2;
-    private static final byte STYLE_CLICK_EVENT_SHIFT;
-    private static final byte STYLE_HOVER_EVENT_SHIFT;
+    static final byte STYLE_CLICK_EVENT_SHIFT;
+    static final byte STYLE_HOVER_EVENT_SHIFT;
 
-    private static final byte STYLE_COLOR_MASK = 1 << STYLE_COLOR_SHIFT;
-    private static final byte STYLE_FONT_MASK = 1 << STYLE_FONT_SHIFT;
-    private static final byte STYLE_INSERTION_MASK = 1 << STYLE_INSERTION_SHIFT;
-    private static final byte STYLE_CLICK_EVENT_MASK;
-    private static final byte STYLE_HOVER_EVENT_MASK;
+    static final byte STYLE_COLOR_MASK = 1 << STYLE_COLOR_SHIFT;
+    static final byte STYLE_FONT_MASK = 1 << STYLE_FONT_SHIFT;
+    static final byte STYLE_INSERTION_MASK = 1 << STYLE_INSERTION_SHIFT;
+    static final byte STYLE_CLICK_EVENT_MASK;
+    static final byte STYLE_HOVER_EVENT_MASK;
 
     private static int log2(int in) {
         int r = 0;
@@ -65,7 +86,38 @@ import java.util.concurrent.atomic.AtomicInteger;
         assert STYLE_CLICK_EVENT_SHIFT + clickBits + hoverBits <= 8;
     }
 
-    private static final TextDecoration[] DECORATIONS = {
+    // With FLAG_STYLE_DELTA every style starts with a byte of these bits, marking the parts that are left out
+    // because they equal the style inherited from the parent, see effectiveStyle
+    static final int STYLE_SAME_DECORATIONS = 1 << 0;
+    static final int STYLE_SAME_COLOR =       1 << 1;
+    static final int STYLE_SAME_FONT =        1 << 2;
+    static final int STYLE_SAME_INSERTION =   1 << 3;
+    static final int STYLE_SAME_CLICK_EVENT = 1 << 4;
+    static final int STYLE_SAME_HOVER_EVENT = 1 << 5;
+
+    // With FLAG_COLOR_PALETTE a color is a varint: the index of a named color, COLOR_LITERAL followed by the rgb bytes
+    // of a color added to the payload's palette, or COLOR_LITERAL + 1 + the index of a color in the palette
+    static final NamedTextColor[] NAMED_COLORS = {
+            NamedTextColor.BLACK,
+            NamedTextColor.DARK_BLUE,
+            NamedTextColor.DARK_GREEN,
+            NamedTextColor.DARK_AQUA,
+            NamedTextColor.DARK_RED,
+            NamedTextColor.DARK_PURPLE,
+            NamedTextColor.GOLD,
+            NamedTextColor.GRAY,
+            NamedTextColor.DARK_GRAY,
+            NamedTextColor.BLUE,
+            NamedTextColor.GREEN,
+            NamedTextColor.AQUA,
+            NamedTextColor.RED,
+            NamedTextColor.LIGHT_PURPLE,
+            NamedTextColor.YELLOW,
+            NamedTextColor.WHITE
+    };
+    static final int COLOR_LITERAL = NAMED_COLORS.length;
+
+    static final TextDecoration[] DECORATIONS = {
             TextDecoration.BOLD,
             TextDecoration.ITALIC,
             TextDecoration.UNDERLINED,
@@ -73,107 +125,181 @@ import java.util.concurrent.atomic.AtomicInteger;
             TextDecoration.OBFUSCATED
     };
 
+    private final int flags;
+    private final @Nullable StringDictionary dictionary;
+    private final @Nullable InternCache internCache;
+    final int maxDepth;
+    final int maxNodes;
+    final DecoderLimits limits;
+    private final int compressionThreshold;
+    private final @Nullable CompressionDictionary compressionDictionary;
+    private final boolean compact;
+    final ComponentCodecs codecs;
+
+    private BinaryComponentSerializerImpl(BuilderImpl builder) {
+        this.dictionary = builder.dictionary;
+        this.flags = this.dictionary != null ? builder.flags | FLAG_DICTIONARY | FLAG_STRING_TABLE : builder.flags;
+        this.internCache = builder.internStrings > 0 ? new InternCache(builder.internStrings) : null;
+        this.maxDepth = builder.maxDepth;
+        this.maxNodes = builder.maxNodes;
+
+        // The nesting limits apply to both directions, decoder limits can only tighten them
+        DecoderLimits limits = builder.decoderLimits;
+        this.limits = limits
+                .withMaxDepth(Math.min(limits.maxDepth(), builder.maxDepth))
+                .withMaxNodes(Math.min(limits.maxNodes(), builder.maxNodes));
+
+        this.compressionThreshold = builder.compressionThreshold;
+        this.compressionDictionary = builder.compressionDictionary;
+        this.compact = builder.compact;
+        this.codecs = builder.codecs.isEmpty() ? ComponentCodecs.NONE : new ComponentCodecs(builder.codecs);
+    }
+
     // region [Serialize]
 
+    @Override
+    public byte[] serialize(Component value) throws IOException {
+        ScratchBuffer scratch = ScratchBuffer.acquire();
+        try {
+            this.serializePayload(value, scratch);
+            return scratch.toByteArray();
+        } finally {
+            ScratchBuffer.release(scratch);
+        }
+    }
+
+    @Override
+    public void serialize(Component value, ByteBuffer buffer) throws IOException {
+        this.serializePayload(value, new ByteBufferBinaryOutput(buffer));
+    }
+
+    @Override
+    public int serializedSize(Component value) throws IOException {
+        CountingBinaryOutput output = new CountingBinaryOutput();
+        this.serializePayload(value, output);
+        return output.count();
+    }
+
     @Override
     public void serializeComponent(Component value, DataOutputStream output) throws IOException {
-        this.serializeComponent(value, output, true);
+        ScratchBuffer scratch = ScratchBuffer.acquire();
+        try {
+            this.serializePayload(value, scratch);
+            output.write(scratch.array(), 0, scratch.size());
+        } finally {
+            ScratchBuffer.release(scratch);
+        }
     }
 
-    public void serializeComponent(Component value, DataOutputStream output, boolean header) throws IOException {
-        if (header) {
-            output.writeByte(VERSION);
+    public void serializePayload(Component value, BinaryOutput output) throws IOException {
+        if (this.compressionThreshold > 0 && !(output instanceof ScratchBuffer)) {
+            // Only known to be worth compressing once encoded
+            ScratchBuffer scratch = ScratchBuffer.acquire();
+            try {
+                this.serializePayload(value, scratch);
+                output.write(scratch.array(), 0, scratch.size());
+            } finally {
+                ScratchBuffer.release(scratch);
+            }
+            return;
         }
 
-        if (value instanceof TextComponent text) {
-            output.writeByte(COMPONENT_TEXT);
-            serializeString(text.content(), output);
-        } else if (value instanceof TranslatableComponent translatable) {
-            output.writeByte(COMPONENT_TRANSLATABLE);
-            serializeString(translatable.key(), output);
+        int start = output instanceof ScratchBuffer scratch ? scratch.size() : 0;
+        EncoderState encoder = serializeHeader(output);
+        serializeComponent(value, output, encoder);
+        this.compress(output, start);
+    }
 
-            output.writeByte((byte) translatable.args().size());
-            for (Component arg : translatable.args()) {
-                serializeComponent(arg, output, false);
-            }
-        } else if (value instanceof ScoreComponent score) {
-            output.writeByte(COMPONENT_SCORE);
-            serializeString(score.name(), output);
-            serializeString(score.objective(), output);
-        } else if (value instanceof SelectorComponent selector) {
-            output.writeByte(COMPONENT_SELECTOR);
-            serializeString(selector.pattern(), output);
-
-            serializeOptional(selector.separator(), output);
-        } else if (value instanceof KeybindComponent keybind) {
-            output.writeByte(COMPONENT_KEYBIND);
-            serializeString(keybind.keybind(), output);
-        } else if (value instanceof BlockNBTComponent nbt) {
-            output.writeByte(COMPONENT_BLOCK_NBT);
-
-            serializeString(nbt.nbtPath(), output);
-            output.writeBoolean(nbt.interpret());
-            serializeOptional(nbt.separator(), output);
-
-            serializeBlockNbtPos(nbt.pos(), output);
-        } else if (value instanceof EntityNBTComponent nbt) {
-            output.writeByte(COMPONENT_ENTITY_NBT);
-
-            serializeString(nbt.nbtPath(), output);
-            output.writeBoolean(nbt.interpret());
-            serializeOptional(nbt.separator(), output);
-
-            serializeString(nbt.selector(), output);
-        } else if (value instanceof StorageNBTComponent nbt) {
-            output.writeByte(COMPONENT_STORAGE_NBT);
-
-            serializeString(nbt.nbtPath(), output);
-            output.writeBoolean(nbt.interpret());
-            serializeOptional(nbt.separator(), output);
-
-            serializeKey(nbt.storage(), output);
-        } else {
-            throw notSureHowToSerialize(value);
+    @Override
+    public byte[] serializeAll(List<Component> values) throws IOException {
+        ScratchBuffer scratch = ScratchBuffer.acquire();
+        try {
+            this.serializeAllPayload(values, scratch);
+            return scratch.toByteArray();
+        } finally {
+            ScratchBuffer.release(scratch);
         }
+    }
 
-        int data = (value.children().size() << 1) | (value.hasStyling() ? 1 : 0);
-        serializeVarInt(data, output);
+    public void serializeAllPayload(List<Component> values, BinaryOutput output) throws IOException {
+        if (this.compressionThreshold > 0 && !(output instanceof ScratchBuffer)) {
+            ScratchBuffer scratch = ScratchBuffer.acquire();
+            try {
+                this.serializeAllPayload(values, scratch);
+                output.write(scratch.array(), 0, scratch.size());
+            } finally {
+                ScratchBuffer.release(scratch);
+            }
+            return;
+        }
 
-        if (value.hasStyling()) {
-            serializeStyle(value.style(), output);
+        int start = output instanceof ScratchBuffer scratch ? scratch.size() : 0;
+        EncoderState encoder = serializeHeader(output);
+        serializeVarInt(values.size(), output);
+        for (Component value : values) {
+            serializeComponent(value, output, encoder);
         }
+        this.compress(output, start);
+    }
 
-        for (Component child : value.children()) {
-            serializeComponent(child, output, false);
+    /**
+     * Replaces the payload written to the scratch buffer since {@code start} with a compressed frame if it is large enough
+     */
+    private void compress(BinaryOutput output, int start) throws IOException {
+        if (this.compressionThreshold > 0 && output instanceof ScratchBuffer scratch && scratch.size() - start > this.compressionThreshold) {
+            Compression.compress(scratch, start, this.compressionDictionary);
         }
     }
 
-    private void serializeOptional(Component value, DataOutputStream output) throws IOException {
-        if (value != null) {
-            output.writeBoolean(true);
-            serializeComponent(value, output, false);
+    private EncoderState serializeHeader(BinaryOutput output) throws IOException {
+        if (this.flags == 0) {
+            output.writeByte(VERSION);
         } else {
-            output.writeBoolean(false);
+            output.writeByte(VERSION_FLAGS);
+            serializeVarInt(this.flags, output);
+
+            if (this.dictionary != null) {
+                serializeVarInt(this.dictionary.id(), output);
+            }
         }
+        return new EncoderState(this.flags, this.dictionary, this.codecs);
     }
 
-    private void serializeStyle(Style value, DataOutputStream output) throws IOException {
-        int decorationValue = 0;
-
-        for (TextDecoration decoration : DECORATIONS) {
-            decorationValue *= 3;
+    public void serializeComponent(Component value, BinaryOutput output, EncoderState encoder) throws IOException {
+        new ComponentEncoder(this, output, encoder).encode(this.compact ? ComponentCompactor.compact(value) : value);
+    }
 
-            final TextDecoration.State state = value.decoration(decoration);
-            decorationValue += state.ordinal();
+    /**
+     * Writes everything of the style up to the component of a show text or show entity hover event
+     *
+     * @param reference the style inherited from the parent with FLAG_STYLE_DELTA, null without
+     * @return that component, to be written next, or null if there is none
+     */
+    @Nullable Component serializeStyle(Style value, @Nullable Style reference, BinaryOutput output, EncoderState encoder) throws IOException {
+        int same = 0;
+        if (reference != null) {
+            same = sameParts(value, reference);
+            output.writeByte(same);
         }
 
-        output.writeByte(decorationValue);
+        if ((same & STYLE_SAME_DECORATIONS) == 0) {
+            int decorationValue = 0;
+
+            for (TextDecoration decoration : DECORATIONS) {
+                decorationValue *= 3;
 
-        final @Nullable TextColor color = value.color();
-        final @Nullable Key font = value.font();
-        final @Nullable String insertion = value.insertion();
-        final @Nullable HoverEvent<?> hoverEvent = value.hoverEvent();
-        final @Nullable ClickEvent clickEvent = value.clickEvent();
+                final TextDecoration.State state = value.decoration(decoration);
+                decorationValue += state.ordinal();
+            }
+
+            output.writeByte(decorationValue);
+        }
+
+        final @Nullable TextColor color = (same & STYLE_SAME_COLOR) == 0 ? value.color() : null;
+        final @Nullable Key font = (same & STYLE_SAME_FONT) == 0 ? value.font() : null;
+        final @Nullable String insertion = (same & STYLE_SAME_INSERTION) == 0 ? value.insertion() : null;
+        final @Nullable HoverEvent<?> hoverEvent = (same & STYLE_SAME_HOVER_EVENT) == 0 ? value.hoverEvent() : null;
+        final @Nullable ClickEvent clickEvent = (same & STYLE_SAME_CLICK_EVENT) == 0 ? value.clickEvent() : null;
 
         byte state = 0;
         if (color != null) state |= STYLE_COLOR_MASK;
@@ -182,77 +308,169 @@ import java.util.concurrent.atomic.AtomicInteger;
         if (clickEvent != null) {
             state |= (clickEvent.action().ordinal() + 1) << STYLE_CLICK_EVENT_SHIFT;
         }
-        if (hoverEvent != null) {
-            Object hoverValue = hoverEvent.value();
-            if (hoverValue instanceof HoverEvent.ShowItem)        state |= 0b01 << STYLE_HOVER_EVENT_SHIFT;
-            else if (hoverValue instanceof HoverEvent.ShowEntity) state |= 0b10 << STYLE_HOVER_EVENT_SHIFT;
-            else if (hoverValue instanceof Component)             state |= 0b11 << STYLE_HOVER_EVENT_SHIFT;
-            else throw new IllegalArgumentException("Don't know how to serialize " + hoverEvent);
+        final int hoverAction = hoverEvent != null ? hoverAction(hoverEvent) : -1;
+        if (hoverAction >= 0) {
+            state |= (hoverAction + 1) << STYLE_HOVER_EVENT_SHIFT;
         }
 
         output.writeByte(state);
 
         if (color != null) {
-            output.writeByte(color.red());
-            output.writeByte(color.green());
-            output.writeByte(color.blue());
+            serializeColor(color, output, encoder);
         }
 
         if (font != null) {
-            serializeKey(font, output);
+            serializeKey(font, output, encoder);
         }
 
         if (insertion != null) {
-            serializeString(insertion, output);
+            serializeString(insertion, output, encoder);
         }
 
         if (clickEvent != null) {
-            serializeString(clickEvent.value(), output);
+            serializeString(clickEvent.value(), output, encoder);
         }
 
-        if (hoverEvent != null) {
-            Object hoverValue = hoverEvent.value();
-            if (hoverValue instanceof HoverEvent.ShowItem showItem) {
-                serializeShowItem(showItem, output);
-            } else if (hoverValue instanceof HoverEvent.ShowEntity showEntity) {
-                serializeShowEntity(showEntity, output);
-            } else if (hoverValue instanceof Component component) {
-                serializeComponent(component, output, false);
-            } else {
-                throw new IllegalArgumentException("Don't know how to serialize " + hoverEvent);
+        return switch (hoverAction) {
+            case 0 -> {
+                serializeShowItem((HoverEvent.ShowItem) hoverEvent.value(), output, encoder);
+                yield null;
+            }
+            case 1 -> serializeShowEntity((HoverEvent.ShowEntity) hoverEvent.value(), output, encoder);
+            case 2 -> (Component) hoverEvent.value();
+            default -> null;
+        };
+    }
+
+    /**
+     * The actions are constants, comparing them once replaces testing the value against every hover value type
+     *
+     * @return 0 for show item, 1 for show entity and 2 for show text, as the hover event bits of the state are numbered
+     */
+    static int hoverAction(HoverEvent<?> value) {
+        HoverEvent.Action<?> action = value.action();
+        if (action == HoverEvent.Action.SHOW_ITEM) return 0;
+        if (action == HoverEvent.Action.SHOW_ENTITY) return 1;
+        if (action == HoverEvent.Action.SHOW_TEXT) return 2;
+        throw new IllegalArgumentException("Don't know how to serialize " + value);
+    }
+
+    /**
+     * @return the STYLE_SAME_* bits of the parts set in the style that equal the reference's
+     */
+    private static int sameParts(Style value, Style reference) {
+        int same = STYLE_SAME_DECORATIONS;
+        for (TextDecoration decoration : DECORATIONS) {
+            if (value.decoration(decoration) != reference.decoration(decoration)) {
+                same = 0;
+                break;
             }
         }
+
+        // Colors are compared by value, the decoder turns both into the same instance
+        TextColor color = value.color();
+        TextColor referenceColor = reference.color();
+        if (color != null && referenceColor != null && color.value() == referenceColor.value()) same |= STYLE_SAME_COLOR;
+
+        if (value.font() != null && value.font().equals(reference.font())) same |= STYLE_SAME_FONT;
+        if (value.insertion() != null && value.insertion().equals(reference.insertion())) same |= STYLE_SAME_INSERTION;
+        if (value.clickEvent() != null && value.clickEvent().equals(reference.clickEvent())) same |= STYLE_SAME_CLICK_EVENT;
+        if (value.hoverEvent() != null && value.hoverEvent().equals(reference.hoverEvent())) same |= STYLE_SAME_HOVER_EVENT;
+        return same;
+    }
+
+    /**
+     * The style children of a component inherit, which their style deltas are relative to
+     * Only children inherit, everything else nested in a component (arguments, separators, hover texts) starts
+     * from the empty style, so a back-referenced style or subtree means the same wherever it's referenced from
+     *
+     * @param own the component's style, null if it has none
+     */
+    static Style effectiveStyle(Style reference, @Nullable Style own) {
+        if (own == null || own.isEmpty()) return reference;
+        return reference.isEmpty() ? own : reference.merge(own);
     }
 
-    private void serializeShowItem(HoverEvent.ShowItem value, DataOutputStream output) throws IOException {
-        serializeKey(value.item(), output);
+    private static void serializeColor(TextColor value, BinaryOutput output, EncoderState encoder) throws IOException {
+        if (encoder.colors != null) {
+            if (value instanceof NamedTextColor named) {
+                serializeVarInt(namedColorIndex(named), output);
+                return;
+            }
+
+            Integer index = encoder.colors.get(value.value());
+            if (index != null) {
+                serializeVarInt(COLOR_LITERAL + 1 + index, output);
+                return;
+            }
+            encoder.colors.put(value.value(), encoder.colors.size());
+            output.writeByte(COLOR_LITERAL);
+        }
+
+        output.writeByte(value.red());
+        output.writeByte(value.green());
+        output.writeByte(value.blue());
+    }
+
+    private static int namedColorIndex(NamedTextColor value) {
+        for (int i = 0; i < NAMED_COLORS.length; i++) {
+            if (NAMED_COLORS[i] == value) return i;
+        }
+        throw new IllegalArgumentException("Don't know how to serialize " + value);
+    }
+
+    /**
+     * Writes the codec id and the content of a component written by a codec, see COMPONENT_CUSTOM
+     */
+    static <C extends Component> void serializeCustom(ComponentCodec<C> codec, Component value, BinaryOutput output) throws IOException {
+        serializeVarInt(codec.id(), output);
+
+        if (output instanceof ScratchBuffer scratch) {
+            // Written in place, the length is put in front once known
+            int start = scratch.size();
+            codec.write(codec.type().cast(value), scratch);
+            scratch.insertVarInt(start, scratch.size() - start);
+            return;
+        }
+
+        ScratchBuffer content = ScratchBuffer.acquire();
+        try {
+            codec.write(codec.type().cast(value), content);
+            serializeVarInt(content.size(), output);
+            output.write(content.array(), 0, content.size());
+        } finally {
+            ScratchBuffer.release(content);
+        }
+    }
+
+    private void serializeShowItem(HoverEvent.ShowItem value, BinaryOutput output, EncoderState encoder) throws IOException {
+        serializeKey(value.item(), output, encoder);
 
         output.writeByte((byte) value.count());
 
         final @Nullable BinaryTagHolder nbt = value.nbt();
         if (nbt != null) {
-            serializeString(nbt.string(), output);
+            serializeString(nbt.string(), output, encoder);
         } else {
-            serializeString("", output);
+            serializeString("", output, encoder);
         }
     }
 
-    private void serializeShowEntity(HoverEvent.ShowEntity value, DataOutputStream output) throws IOException {
-        serializeKey(value.type(), output);
+    /**
+     * @return the name of the entity, to be written next, or null if there is none
+     */
+    private @Nullable Component serializeShowEntity(HoverEvent.ShowEntity value, BinaryOutput output, EncoderState encoder) throws IOException {
+        serializeKey(value.type(), output, encoder);
 
         output.writeLong(value.id().getMostSignificantBits());
         output.writeLong(value.id().getLeastSignificantBits());
 
         final @Nullable Component name = value.name();
-        if (name != null) {
-            output.writeBoolean(true);
-            serializeComponent(name, output, false);
-        } else {
-            output.writeBoolean(false);
-        }
+        output.writeBoolean(name != null);
+        return name;
     }
 
-    private void serializeBlockNbtPos(BlockNBTComponent.Pos pos, DataOutputStream output) throws IOException {
+    void serializeBlockNbtPos(BlockNBTComponent.Pos pos, BinaryOutput output) throws IOException {
         if (pos instanceof BlockNBTComponent.WorldPos world) {
             output.writeByte(0);
             serializeCoordinate(world.x(), output);
@@ -266,194 +484,336 @@ import java.util.concurrent.atomic.AtomicInteger;
         }
     }
 
-    private void serializeCoordinate(BlockNBTComponent.WorldPos.Coordinate coordinate, DataOutputStream output) throws IOException {
+    private void serializeCoordinate(BlockNBTComponent.WorldPos.Coordinate coordinate, BinaryOutput output) throws IOException {
         serializeSignedInt(coordinate.value(), output);
         output.writeByte((byte) coordinate.type().ordinal());
     }
 
-    private void serializeKey(Key key, DataOutputStream output) throws IOException {
-        serializeString(key.namespace(), output);
-        serializeString(key.value(), output);
+    void serializeKey(Key key, BinaryOutput output, EncoderState encoder) throws IOException {
+        serializeString(key.namespace(), output, encoder);
+        serializeString(key.value(), output, encoder);
     }
 
     // endregion [Serialize]
 
+    @Override
+    public Component deserialize(ByteBuffer buffer) throws IOException {
+        try {
+            return deserializePayload(new ByteBufferBinaryInput(buffer));
+        } catch (BufferUnderflowException e) {
+            throw new EOFException("Buffer ended before the component did");
+        }
+    }
+
     @Override
     public Component deserializeComponent(DataInputStream input) throws IOException {
-        return deserializeComponent(input, true);
+        return deserializePayload(new DataBinaryInput(input));
     }
 
-    public Component deserializeComponent(DataInputStream input, boolean header) throws IOException {
-        if (header) {
-            if (VERSION != input.readByte()) {
-                throw new IllegalStateException("Wrong version! Can't deserialize");
+    public Component deserializePayload(BinaryInput input) throws IOException {
+        input = this.limit(input);
+        byte version = input.readByte();
+        if (version == VERSION_COMPRESSED) {
+            ByteBuffer payload = this.inflate(input);
+            try {
+                BinaryInput inflated = new ByteBufferBinaryInput(payload);
+                Component component = deserializeComponent(inflated, deserializeHeader(inflated));
+                checkInflated(payload.remaining());
+                return component;
+            } catch (BufferUnderflowException e) {
+                throw new EOFException("Compressed payload ended before the component did");
             }
         }
 
-        byte componentType = input.readByte();
-        ComponentBuilder<?, ?> builder = switch (componentType) {
-            case COMPONENT_TEXT -> Component.text()
-                    .content(deserializeString(input));
-            case COMPONENT_TRANSLATABLE -> {
-                var translatable = Component.translatable()
-                        .key(deserializeString(input));
+        DecoderState decoder = deserializeHeader(version, input);
+        return deserializeComponent(input, decoder);
+    }
 
-                byte argsCount = input.readByte();
+    @Override
+    public List<Component> deserializeAll(ByteBuffer buffer) throws IOException {
+        try {
+            return deserializeAllPayload(new ByteBufferBinaryInput(buffer));
+        } catch (BufferUnderflowException e) {
+            throw new EOFException("Buffer ended before the components did");
+        }
+    }
 
-                List<Component> args = new ArrayList<>(argsCount);
-                for (int i = 0; i < argsCount; i++) {
-                    args.add(deserializeComponent(input, false));
-                }
-                translatable.args(args);
+    @Override
+    public void visit(ByteBuffer buffer, ComponentVisitor visitor) throws IOException {
+        ByteBuffer payload = this.inflated(buffer);
+        PayloadReader reader = new PayloadReader(this, payload);
+        reader.visit(visitor);
+        advance(buffer, payload, reader);
+    }
 
-                yield translatable;
-            }
-            case COMPONENT_SCORE -> Component.score()
-                    .name(deserializeString(input))
-                    .objective(deserializeString(input));
-            case COMPONENT_SELECTOR -> {
-                var selector = Component.selector()
-                        .pattern(deserializeString(input));
-
-                if (input.readBoolean()) {
-                    selector.separator(deserializeComponent(input, false));
-                }
+    @Override
+    public int skipComponent(ByteBuffer buffer) throws IOException {
+        int start = buffer.position();
+        ByteBuffer payload = this.inflated(buffer);
+        PayloadReader reader = new PayloadReader(this, payload);
+        reader.skipPayload();
+        advance(buffer, payload, reader);
+        return buffer.position() - start;
+    }
 
-                yield selector;
-            }
-            case COMPONENT_KEYBIND -> Component.keybind()
-                    .keybind(deserializeString(input));
-            case COMPONENT_BLOCK_NBT -> {
-                var block = Component.blockNBT()
-                        .nbtPath(deserializeString(input))
-                        .interpret(input.readBoolean());
-
-                if (input.readBoolean()) {
-                    block.separator(deserializeComponent(input, false));
-                }
+    @Override
+    public String plainText(ByteBuffer buffer) throws IOException {
+        ByteBuffer payload = this.inflated(buffer);
+        PayloadReader reader = new PayloadReader(this, payload);
+        StringBuilder builder = new StringBuilder();
+        reader.appendPlainText(builder);
+        advance(buffer, payload, reader);
+        return builder.toString();
+    }
 
-                block.pos(deserializeBlockNbtPos(input));
+    @Override
+    public EncodedComponentView view(ByteBuffer buffer) throws IOException {
+        return EncodedComponentView.root(this, this.inflated(buffer.duplicate()));
+    }
 
-                yield block;
-            }
-            case COMPONENT_ENTITY_NBT -> {
-                var entity = Component.entityNBT()
-                        .nbtPath(deserializeString(input))
-                        .interpret(input.readBoolean());
+    /**
+     * @return the buffer itself, or the payload of the compressed frame at its position, which it is moved past then
+     */
+    private ByteBuffer inflated(ByteBuffer buffer) throws IOException {
+        if (!buffer.hasRemaining() || buffer.get(buffer.position()) != VERSION_COMPRESSED) {
+            return buffer;
+        }
 
-                if (input.readBoolean()) {
-                    entity.separator(deserializeComponent(input, false));
-                }
+        // Only moved once the whole frame was read, like the buffer of a reader
+        ByteBuffer frame = buffer.duplicate();
+        try {
+            BinaryInput input = this.limit(new ByteBufferBinaryInput(frame));
+            input.readByte();
+            ByteBuffer payload = this.inflate(input);
+            buffer.position(frame.position());
+            return payload;
+        } catch (BufferUnderflowException e) {
+            throw new EOFException("Buffer ended before the compressed frame did");
+        }
+    }
 
-                entity.selector(deserializeString(input));
+    /**
+     * Moves the buffer past the payload the reader walked, unless it was compressed and the buffer is past it already
+     */
+    private static void advance(ByteBuffer buffer, ByteBuffer payload, PayloadReader reader) {
+        if (payload == buffer) {
+            buffer.position(reader.position());
+        } else {
+            checkInflated(payload.limit() - reader.position());
+        }
+    }
 
-                yield entity;
-            }
-            case COMPONENT_STORAGE_NBT -> {
-                var storage = Component.storageNBT()
-                        .nbtPath(deserializeString(input))
-                        .interpret(input.readBoolean());
+    private ByteBuffer inflate(BinaryInput input) throws IOException {
+        return ByteBuffer.wrap(Compression.inflate(input, this.compressionDictionary, this.limits));
+    }
 
-                if (input.readBoolean()) {
-                    storage.separator(deserializeComponent(input, false));
-                }
+    private static void checkInflated(int remaining) {
+        if (remaining != 0) {
+            throw new IllegalStateException("Compressed frame longer than its payload! Can't deserialize");
+        }
+    }
 
-                storage.storage(deserializeKey(input));
+    @Override
+    public StreamingComponentDecoder streamingDecoder() {
+        return new StreamingComponentDecoder(this);
+    }
 
-                yield storage;
+    public List<Component> deserializeAllPayload(BinaryInput input) throws IOException {
+        input = this.limit(input);
+        byte version = input.readByte();
+        if (version == VERSION_COMPRESSED) {
+            ByteBuffer payload = this.inflate(input);
+            try {
+                BinaryInput inflated = new ByteBufferBinaryInput(payload);
+                List<Component> values = this.deserializeAllComponents(inflated, deserializeHeader(inflated));
+                checkInflated(payload.remaining());
+                return values;
+            } catch (BufferUnderflowException e) {
+                throw new EOFException("Compressed payload ended before the components did");
             }
-            default -> throw notSureHowToDeserialize();
-        };
+        }
 
-        int data = deserializeVarInt(input);
+        return this.deserializeAllComponents(input, deserializeHeader(version, input));
+    }
 
-        if ((data & 1) != 0) {
-            builder.style(deserializeStyle(input));
+    private List<Component> deserializeAllComponents(BinaryInput input, DecoderState decoder) throws IOException {
+        int count = deserializeVarInt(input);
+        if (count < 0) {
+            throw new IllegalStateException("Negative component count! Can't deserialize");
         }
 
-        int childrenCount = data >> 1;
-        for (int i = 0; i < childrenCount; i++) {
-            builder.append(deserializeComponent(input, false));
+        // The count comes from the payload, don't trust it for the initial capacity
+        List<Component> values = new ArrayList<>(Math.min(count, 256));
+        for (int i = 0; i < count; i++) {
+            values.add(deserializeComponent(input, decoder));
+        }
+        return values;
+    }
+
+    private BinaryInput limit(BinaryInput input) {
+        return this.limits.bytesLimited() ? new LimitedBinaryInput(input, this.limits) : input;
+    }
+
+    DecoderState deserializeHeader(BinaryInput input) throws IOException {
+        return deserializeHeader(input.readByte(), input);
+    }
+
+    /**
+     * A compressed frame is the wrong version here, its payload is read with the other overload after inflating it
+     */
+    DecoderState deserializeHeader(byte version, BinaryInput input) throws IOException {
+        return switch (version) {
+            case VERSION -> new DecoderState(0, null);
+            case VERSION_FLAGS -> {
+                int flags = deserializeVarInt(input);
+                if ((flags & ~SUPPORTED_FLAGS) != 0) {
+                    throw new IllegalStateException("Unsupported format flags " + Integer.toBinaryString(flags) + "! Can't deserialize");
+                }
+
+                StringDictionary dictionary = null;
+                if ((flags & FLAG_DICTIONARY) != 0) {
+                    if ((flags & FLAG_STRING_TABLE) == 0) {
+                        throw new IllegalStateException("Dictionary without a string table! Can't deserialize");
+                    }
+                    dictionary = dictionary(deserializeVarInt(input));
+                }
+
+                yield new DecoderState(flags, dictionary);
+            }
+            default -> throw new IllegalStateException("Wrong version! Can't deserialize");
+        };
+    }
+
+    private StringDictionary dictionary(int id) {
+        if (this.dictionary != null && this.dictionary.id() == id) {
+            return this.dictionary;
+        } else if (StringDictionary.MINECRAFT.id() == id) {
+            return StringDictionary.MINECRAFT;
         }
+        throw new IllegalStateException("Unknown dictionary " + id + "! Can't deserialize");
+    }
 
-        return builder.build();
+    public Component deserializeComponent(BinaryInput input, DecoderState decoder) throws IOException {
+        return new ResumableDecoder(this).decode(input, decoder);
     }
 
-    private Style deserializeStyle(DataInputStream input) throws IOException {
-        final var builder = Style.style();
+    /**
+     * Reads everything of the style except the hover event, taking the parts left out of a style delta from the reference
+     *
+     * @param reference the style inherited from the parent with FLAG_STYLE_DELTA, null without
+     * @return the state byte, saying which hover event follows
+     */
+    int deserializeStyleHead(Style.Builder builder, @Nullable Style reference, BinaryInput input, DecoderState decoder) throws IOException {
+        int same = 0;
+        if (reference != null) {
+            same = input.readByte() & 0xFF;
+            if ((same & STYLE_SAME_COLOR) != 0) builder.color(reference.color());
+            if ((same & STYLE_SAME_FONT) != 0) builder.font(reference.font());
+            if ((same & STYLE_SAME_INSERTION) != 0) builder.insertion(reference.insertion());
+            if ((same & STYLE_SAME_CLICK_EVENT) != 0) builder.clickEvent(reference.clickEvent());
+            if ((same & STYLE_SAME_HOVER_EVENT) != 0) builder.hoverEvent(reference.hoverEvent());
+        }
 
-        int decorationValue = input.readByte() & 0xFF;
+        if ((same & STYLE_SAME_DECORATIONS) != 0) {
+            for (TextDecoration decoration : DECORATIONS) {
+                builder.decoration(decoration, reference.decoration(decoration));
+            }
+        } else {
+            int decorationValue = input.readByte() & 0xFF;
 
-        for (int i = DECORATIONS.length-1; i >= 0; i--) {
-            TextDecoration decoration = DECORATIONS[i];
-            builder.decoration(decoration, TextDecoration.State.values()[decorationValue % 3]);
-            decorationValue /= 3;
+            for (int i = DECORATIONS.length-1; i >= 0; i--) {
+                TextDecoration decoration = DECORATIONS[i];
+                builder.decoration(decoration, TextDecoration.State.values()[decorationValue % 3]);
+                decorationValue /= 3;
+            }
         }
 
         int state = input.readByte() & 0xFF;
 
         if ((state & STYLE_COLOR_MASK) != 0) {
-            int color = ((input.readByte() & 0xFF) << 16) | ((input.readByte() & 0xFF) << 8) | (input.readByte() & 0xFF);
-            builder.color(TextColor.color(color));
+            builder.color(deserializeColor(input, decoder));
         }
 
         if ((state & STYLE_FONT_MASK) != 0) {
-            builder.font(deserializeKey(input));
+            builder.font(deserializeKey(input, decoder));
         }
 
         if ((state & STYLE_INSERTION_MASK) != 0) {
-            builder.insertion(deserializeString(input));
+            builder.insertion(deserializeString(input, decoder));
         }
 
         if ((state & STYLE_CLICK_EVENT_MASK) != 0) {
             int actionId = ((state & STYLE_CLICK_EVENT_MASK) >>> STYLE_CLICK_EVENT_SHIFT) - 1;
             builder.clickEvent(ClickEvent.clickEvent(
                     ClickEvent.Action.values()[actionId],
-                    deserializeString(input)
+                    deserializeString(input, decoder)
             ));
         }
 
-        if ((state & STYLE_HOVER_EVENT_MASK) != 0) {
-            int hoverActionId = ((state & STYLE_HOVER_EVENT_MASK) >>> STYLE_HOVER_EVENT_SHIFT) - 1;
+        return state;
+    }
 
-            var hover = switch (hoverActionId) {
-                case 0 -> HoverEvent.showItem(deserializeShowItem(input));
-                case 1 -> HoverEvent.showEntity(deserializeShowEntity(input));
-                case 2 -> HoverEvent.showText(deserializeComponent(input, false));
-                default -> throw notSureHowToDeserialize();
-            };
+    private static TextColor deserializeColor(BinaryInput input, DecoderState decoder) throws IOException {
+        if (decoder.colors == null) {
+            return TextColor.color(deserializeRgb(input));
+        }
 
-            builder.hoverEvent(hover);
+        int code = deserializeVarInt(input);
+        if (code >= 0 && code < COLOR_LITERAL) {
+            return NAMED_COLORS[code];
+        }
+        if (code == COLOR_LITERAL) {
+            TextColor color = TextColor.color(deserializeRgb(input));
+            decoder.colors.add(color);
+            return color;
         }
 
-        return builder.build();
+        int index = code - COLOR_LITERAL - 1;
+        if (index < 0 || index >= decoder.colors.size()) {
+            throw new IllegalArgumentException("Invalid color reference " + index);
+        }
+        return decoder.colors.get(index);
     }
 
-    private HoverEvent.ShowItem deserializeShowItem(DataInputStream input) throws IOException {
-        Key item = deserializeKey(input);
-        byte count = input.readByte();
-        String nbtString = deserializeString(input);
+    static int deserializeRgb(BinaryInput input) throws IOException {
+        return ((input.readByte() & 0xFF) << 16) | ((input.readByte() & 0xFF) << 8) | (input.readByte() & 0xFF);
+    }
 
-        if (nbtString.isEmpty()) {
-            return HoverEvent.ShowItem.of(item, count);
-        } else {
-            return HoverEvent.ShowItem.of(item, count, BinaryTagHolder.binaryTagHolder(nbtString));
+    /**
+     * Reads what {@link #serializeCustom(ComponentCodec, Component, BinaryOutput)} wrote
+     *
+     * @param content reused to read the content straight from the input
+     * @return the component without style and children
+     */
+    Component deserializeCustom(BinaryInput input, CodecInput content) throws IOException {
+        ComponentCodec<?> codec = this.codecs.codec(deserializeVarInt(input));
+        int length = deserializeVarInt(input);
+        if (length < 0) {
+            throw new IllegalStateException("Negative component length! Can't deserialize");
         }
-    }
+        this.limits.checkBytes(length);
 
-    private HoverEvent.ShowEntity deserializeShowEntity(DataInputStream input) throws IOException {
-        Key type = deserializeKey(input);
-        UUID id = new UUID(input.readLong(), input.readLong());
+        content.reset(input, length);
+        Component value = codec.read(content);
+        if (content.remaining() != 0) {
+            throw new IllegalStateException("Component codec " + codec.id() + " left " + content.remaining() + " bytes unread! Can't deserialize");
+        }
+        return value;
+    }
 
+    HoverEvent.ShowItem deserializeShowItem(BinaryInput input, DecoderState decoder) throws IOException {
+        Key item = deserializeKey(input, decoder);
+        byte count = input.readByte();
+        String nbtString = deserializeString(input, decoder);
 
-        if (input.readBoolean()) {
-            return HoverEvent.ShowEntity.of(type, id, deserializeComponent(input, false));
+        if (nbtString.isEmpty()) {
+            return HoverEvent.ShowItem.of(item, count);
         } else {
-            return HoverEvent.ShowEntity.of(type, id);
+            return HoverEvent.ShowItem.of(item, count, BinaryTagHolder.binaryTagHolder(nbtString));
         }
     }
 
-    private BlockNBTComponent.Pos deserializeBlockNbtPos(DataInputStream input) throws IOException {
+    BlockNBTComponent.Pos deserializeBlockNbtPos(BinaryInput input) throws IOException {
         return switch (input.readByte()) {
             case 0 -> BlockNBTComponent.WorldPos.worldPos(
                 deserializeCoordinate(input),
@@ -469,42 +829,113 @@ import java.util.concurrent.atomic.AtomicInteger;
         };
     }
 
-    private BlockNBTComponent.WorldPos.Coordinate deserializeCoordinate(DataInputStream input) throws IOException {
+    private BlockNBTComponent.WorldPos.Coordinate deserializeCoordinate(BinaryInput input) throws IOException {
         return BlockNBTComponent.WorldPos.Coordinate.coordinate(
             deserializeSignedInt(input),
             BlockNBTComponent.WorldPos.Coordinate.Type.values()[input.readByte()]
         );
     }
 
-    private Key deserializeKey(DataInputStream input) throws IOException {
-        return Key.key(
-                deserializeString(input),
-                deserializeString(input)
-        );
+    Key deserializeKey(BinaryInput input, DecoderState decoder) throws IOException {
+        String namespace = deserializeInternedString(input, decoder);
+        String value = deserializeInternedString(input, decoder);
+
+        if (this.internCache != null) {
+            return this.internCache.key(namespace, value);
+        }
+        return Key.key(namespace, value);
     }
 
-    public void serializeString(String value, DataOutputStream output) throws IOException {
-        serializeBytes(value.getBytes(StandardCharsets.UTF_8), output);
+    public void serializeString(String value, BinaryOutput output, EncoderState encoder) throws IOException {
+        if (encoder.strings == null) {
+            int length = Utf8.encodedLength(value);
+            serializeVarInt(length, output);
+            output.writeUtf8(value, length);
+            return;
+        }
+
+        // String table: the low bit says whether a back-reference or a new literal follows
+        // References below the dictionary size point into the dictionary, the rest into the payload's own strings
+        int dictionarySize = 0;
+        if (encoder.dictionary != null) {
+            int index = encoder.dictionary.indexOf(value);
+            if (index >= 0) {
+                serializeVarInt((index << 1) | 1, output);
+                return;
+            }
+            dictionarySize = encoder.dictionary.size();
+        }
+
+        Integer index = encoder.strings.get(value);
+        if (index != null) {
+            serializeVarInt(((dictionarySize + index) << 1) | 1, output);
+            return;
+        }
+
+        int length = Utf8.encodedLength(value);
+        serializeVarInt(stringLiteral(length), output);
+        output.writeUtf8(value, length);
+
+        // Strings past the last index a reference can hold are written as literals every time
+        if (!value.isEmpty() && dictionarySize + encoder.strings.size() < MAX_STRING_TABLE_VALUE) {
+            encoder.strings.put(value, encoder.strings.size());
+        }
     }
 
-    public String deserializeString(DataInputStream input) throws IOException {
-        return new String(deserializeBytes(input), StandardCharsets.UTF_8);
+    // The low bit of a string table entry is the reference bit, leaving one bit less for lengths and indices
+    static final int MAX_STRING_TABLE_VALUE = Integer.MAX_VALUE >>> 1;
+
+    /**
+     * @return the string table entry of a literal of the given UTF-8 length
+     */
+    static int stringLiteral(int length) {
+        if (length > MAX_STRING_TABLE_VALUE) {
+            throw new IllegalArgumentException("Can't serialize a string of " + length + " UTF-8 bytes with the string table, at most " + MAX_STRING_TABLE_VALUE + " are allowed");
+        }
+        return length << 1;
     }
 
-    public void serializeBytes(byte[] value, DataOutputStream output) throws IOException {
-        serializeVarInt(value.length, output);
-        output.write(value);
+    public String deserializeString(BinaryInput input, DecoderState decoder) throws IOException {
+        return deserializeString(input, decoder, null);
     }
 
-    public byte[] deserializeBytes(DataInputStream input) throws IOException {
-        int length = deserializeVarInt(input);
-        return input.readNBytes(length);
+    String deserializeInternedString(BinaryInput input, DecoderState decoder) throws IOException {
+        return deserializeString(input, decoder, this.internCache);
+    }
+
+    private String deserializeString(BinaryInput input, DecoderState decoder, @Nullable InternCache cache) throws IOException {
+        int data = deserializeVarInt(input);
+        if (decoder.strings == null) {
+            return input.readUtf8(this.limits.checkStringLength(data), cache);
+        }
+
+        if ((data & 1) != 0) {
+            int index = data >>> 1;
+
+            if (decoder.dictionary != null) {
+                if (index < decoder.dictionary.size()) {
+                    return decoder.dictionary.get(index);
+                }
+                index -= decoder.dictionary.size();
+            }
+
+            if (index >= decoder.strings.size()) {
+                throw new IllegalArgumentException("Invalid string reference " + index);
+            }
+            return decoder.strings.get(index);
+        }
+
+        String value = input.readUtf8(this.limits.checkStringLength(data >>> 1), cache);
+        if (!value.isEmpty()) {
+            decoder.strings.add(value);
+        }
+        return value;
     }
 
     public static final byte SIGN_MASK = (byte) 0b01000000;
     public static final byte MORE_MASK = (byte) 0b10000000;
 
-    static int deserializeSignedInt(DataInputStream input) throws IOException {
+    static int deserializeSignedInt(BinaryInput input) throws IOException {
         byte b = input.readByte();
         if (b == SIGN_MASK) {
             return input.readInt();
@@ -527,7 +958,7 @@ import java.util.concurrent.atomic.AtomicInteger;
         }
     }
 
-    static void serializeSignedInt(int value, DataOutputStream output) throws IOException {
+    static void serializeSignedInt(int value, BinaryOutput output) throws IOException {
         if (value == Integer.MIN_VALUE) {
             output.writeByte(SIGN_MASK);
             output.writeInt(value);
@@ -560,7 +991,7 @@ import java.util.concurrent.atomic.AtomicInteger;
         }
     }
 
-    static int deserializeVarInt(DataInputStream input) throws IOException {
+    static int deserializeVarInt(BinaryInput input) throws IOException {
         // https://github.com/jvm-profiling-tools/async-profiler/blob/a38a375dc62b31a8109f3af97366a307abb0fe6f/src/converter/one/jfr/JfrReader.java#L393
         int result = 0;
         for (int shift = 0; ; shift += 7) {
@@ -572,7 +1003,11 @@ import java.util.concurrent.atomic.AtomicInteger;
         }
     }
 
-    static void serializeVarInt(@Range(from=0, to=Integer.MAX_VALUE) int value, DataOutputStream output) throws IOException {
+    static int varIntSize(@Range(from=0, to=Integer.MAX_VALUE) int value) {
+        return (31 - Integer.numberOfLeadingZeros(value | 1)) / 7 + 1;
+    }
+
+    static void serializeVarInt(@Range(from=0, to=Integer.MAX_VALUE) int value, BinaryOutput output) throws IOException {
         if ((value & (0xFFFFFFFF << 7)) == 0) {
             output.writeByte((byte) value);
         } else if ((value & (0xFFFFFFFF << 14)) == 0) {
@@ -591,11 +1026,158 @@ import java.util.concurrent.atomic.AtomicInteger;
         }
     }
 
-    private static IllegalArgumentException notSureHowToDeserialize() {
+    static final class BuilderImpl implements Builder {
+
+        private int flags = 0;
+        private @Nullable StringDictionary dictionary = null;
+        private int internStrings = 0;
+        private long encodeCache = 0;
+        private long decodeCache = 0;
+        private int maxDepth = Integer.MAX_VALUE;
+        private int maxNodes = Integer.MAX_VALUE;
+        private DecoderLimits decoderLimits = DecoderLimits.UNLIMITED;
+        private int compressionThreshold = 0;
+        private @Nullable CompressionDictionary compressionDictionary = null;
+        private boolean compact = false;
+        private final List<ComponentCodec<?>> codecs = new ArrayList<>();
+
+        @Override
+        public Builder dictionary(@Nullable StringDictionary dictionary) {
+            this.dictionary = dictionary;
+            return this;
+        }
+
+        @Override
+        public Builder stringTable(boolean stringTable) {
+            return this.flag(FLAG_STRING_TABLE, stringTable);
+        }
+
+        @Override
+        public Builder styleTable(boolean styleTable) {
+            return this.flag(FLAG_STYLE_TABLE, styleTable);
+        }
+
+        @Override
+        public Builder subtreeTable(boolean subtreeTable) {
+            return this.flag(FLAG_SUBTREE_TABLE, subtreeTable);
+        }
+
+        @Override
+        public Builder styleDelta(boolean styleDelta) {
+            return this.flag(FLAG_STYLE_DELTA, styleDelta);
+        }
+
+        @Override
+        public Builder colorPalette(boolean colorPalette) {
+            return this.flag(FLAG_COLOR_PALETTE, colorPalette);
+        }
+
+        private Builder flag(int flag, boolean enabled) {
+            if (enabled) {
+                this.flags |= flag;
+            } else {
+                this.flags &= ~flag;
+            }
+            return this;
+        }
+
+        @Override
+        public Builder internStrings(int maxEntries) {
+            if (maxEntries < 0) {
+                throw new IllegalArgumentException("maxEntries must not be negative");
+            }
+            if (maxEntries > InternCache.MAX_ENTRIES) {
+                throw new IllegalArgumentException("maxEntries must not be larger than " + InternCache.MAX_ENTRIES);
+            }
+            this.internStrings = maxEntries;
+            return this;
+        }
+
+        @Override
+        public Builder encodeCache(long maxBytes) {
+            if (maxBytes < 0) {
+                throw new IllegalArgumentException("maxBytes must not be negative");
+            }
+            this.encodeCache = maxBytes;
+            return this;
+        }
+
+        @Override
+        public Builder decodeCache(long maxBytes) {
+            if (maxBytes < 0) {
+                throw new IllegalArgumentException("maxBytes must not be negative");
+            }
+            this.decodeCache = maxBytes;
+            return this;
+        }
+
+        @Override
+        public Builder maxDepth(int maxDepth) {
+            if (maxDepth <= 0) {
+                throw new IllegalArgumentException("maxDepth must be positive");
+            }
+            this.maxDepth = maxDepth;
+            return this;
+        }
+
+        @Override
+        public Builder maxNodes(int maxNodes) {
+            if (maxNodes <= 0) {
+                throw new IllegalArgumentException("maxNodes must be positive");
+            }
+            this.maxNodes = maxNodes;
+            return this;
+        }
+
+        @Override
+        public Builder decoderLimits(DecoderLimits limits) {
+            this.decoderLimits = Objects.requireNonNull(limits, "limits");
+            return this;
+        }
+
+        @Override
+        public Builder compression(int threshold) {
+            if (threshold < 0) {
+                throw new IllegalArgumentException("threshold must not be negative");
+            }
+            this.compressionThreshold = threshold;
+            return this;
+        }
+
+        @Override
+        public Builder compressionDictionary(@Nullable CompressionDictionary dictionary) {
+            this.compressionDictionary = dictionary;
+            return this;
+        }
+
+        @Override
+        public Builder codec(ComponentCodec<?> codec) {
+            this.codecs.add(Objects.requireNonNull(codec, "codec"));
+            return this;
+        }
+
+        @Override
+        public Builder compact(boolean compact) {
+            this.compact = compact;
+            return this;
+        }
+
+        @Override
+        public BinaryComponentSerializer build() {
+            BinaryComponentSerializerImpl serializer = new BinaryComponentSerializerImpl(this);
+            if (this.encodeCache > 0 || this.decodeCache > 0) {
+                return new CachingBinaryComponentSerializer(serializer, this.encodeCache, this.decodeCache);
+            }
+            return serializer;
+        }
+
+    }
+
+    static IllegalArgumentException notSureHowToDeserialize() {
         return new IllegalArgumentException("Don't know how to turn data into a Component");
     }
 
-    private static IllegalArgumentException notSureHowToSerialize(final Component component) {
+    static IllegalArgumentException notSureHowToSerialize(final Component component) {
         return new IllegalArgumentException("Don't know how to serialize " + component + " as a Component");
     }
 
@@ -0,0 +1,35 @@
+package net.gauntletmc.adventure.serializer.binary;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+
+/**
+ * Source the deserializer reads primitives from, all multi-byte values are big-endian
+ */
+/*package-private*/ interface BinaryInput {
+
+    byte readByte() throws IOException;
+
+    int readInt() throws IOException;
+
+    long readLong() throws IOException;
+
+    /**
+     * Decodes a UTF-8 string of {@code length} bytes
+     *
+     * @param cache if present, used to share instances of short strings that were decoded before
+     */
+    String readUtf8(int length, @Nullable InternCache cache) throws IOException;
+
+    void readFully(byte[] bytes, int offset, int length) throws IOException;
+
+    default boolean readBoolean() throws IOException {
+        return readByte() != 0;
+    }
+
+    default double readDouble() throws IOException {
+        return Double.longBitsToDouble(readLong());
+    }
+
+}
@@ -0,0 +1,37 @@
+package net.gauntletmc.adventure.serializer.binary;
+
+import java.io.IOException;
+
+/**
+ * Sink the serializer writes primitives to, all multi-byte values are big-endian
+ */
+/*package-private*/ interface BinaryOutput {
+
+    void writeByte(int value) throws IOException;
+
+    void writeShort(int value) throws IOException;
+
+    void writeInt(int value) throws IOException;
+
+    void writeLong(long value) throws IOException;
+
+    void write(byte[] bytes, int offset, int length) throws IOException;
+
+    /**
+     * Writes the UTF-8 encoding of the string, without any length prefix
+     *
+     * @param utf8Length the value of {@link Utf8#encodedLength(String)} for the string
+     */
+    default void writeUtf8(String value, int utf8Length) throws IOException {
+        Utf8.encode(value, this);
+    }
+
+    default void writeBoolean(boolean value) throws IOException {
+        writeByte(value ? 1 : 0);
+    }
+
+    default void writeDouble(double value) throws IOException {
+        writeLong(Double.doubleToLongBits(value));
+    }
+
+}
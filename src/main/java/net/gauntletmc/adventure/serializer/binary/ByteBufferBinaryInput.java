@@ -0,0 +1,82 @@
+package net.gauntletmc.adventure.serializer.binary;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.io.EOFException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads straight from a heap or direct buffer, starting at its position
+ */
+/*package-private*/ final class ByteBufferBinaryInput implements BinaryInput {
+
+    private final ByteBuffer buffer;
+    private final boolean bigEndian;
+
+    private byte @Nullable [] scratch;
+
+    ByteBufferBinaryInput(ByteBuffer buffer) {
+        this.buffer = buffer;
+        this.bigEndian = buffer.order() == ByteOrder.BIG_ENDIAN;
+    }
+
+    @Override
+    public byte readByte() {
+        return this.buffer.get();
+    }
+
+    @Override
+    public int readInt() {
+        int value = this.buffer.getInt();
+        return this.bigEndian ? value : Integer.reverseBytes(value);
+    }
+
+    @Override
+    public long readLong() {
+        long value = this.buffer.getLong();
+        return this.bigEndian ? value : Long.reverseBytes(value);
+    }
+
+    @Override
+    public String readUtf8(int length, @Nullable InternCache cache) throws EOFException {
+        if (length > this.buffer.remaining()) {
+            throw new EOFException();
+        }
+
+        int position = this.buffer.position();
+
+        byte[] bytes;
+        int offset;
+        if (this.buffer.hasArray()) {
+            bytes = this.buffer.array();
+            offset = this.buffer.arrayOffset() + position;
+        } else {
+            bytes = scratch(length);
+            offset = 0;
+            this.buffer.get(position, bytes, 0, length);
+        }
+
+        this.buffer.position(position + length);
+
+        // The String constructor already copies pure ASCII input without decoding it
+        return cache != null ? cache.string(bytes, offset, length) : new String(bytes, offset, length, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void readFully(byte[] bytes, int offset, int length) throws EOFException {
+        if (length > this.buffer.remaining()) {
+            throw new EOFException();
+        }
+        this.buffer.get(bytes, offset, length);
+    }
+
+    private byte[] scratch(int length) {
+        if (this.scratch == null || this.scratch.length < length) {
+            this.scratch = new byte[Math.max(length, 64)];
+        }
+        return this.scratch;
+    }
+
+}
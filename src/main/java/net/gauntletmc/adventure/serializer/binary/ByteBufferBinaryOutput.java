@@ -0,0 +1,63 @@
+package net.gauntletmc.adventure.serializer.binary;
+
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Writes straight into a heap or direct buffer, starting at its position
+ * Throws {@link java.nio.BufferOverflowException} when the buffer runs out of space
+ */
+/*package-private*/ final class ByteBufferBinaryOutput implements BinaryOutput {
+
+    private final ByteBuffer buffer;
+    private final boolean bigEndian;
+
+    ByteBufferBinaryOutput(ByteBuffer buffer) {
+        this.buffer = buffer;
+        this.bigEndian = buffer.order() == ByteOrder.BIG_ENDIAN;
+    }
+
+    @Override
+    public void writeByte(int value) {
+        this.buffer.put((byte) value);
+    }
+
+    @Override
+    public void writeShort(int value) {
+        this.buffer.putShort(this.bigEndian ? (short) value : Short.reverseBytes((short) value));
+    }
+
+    @Override
+    public void writeInt(int value) {
+        this.buffer.putInt(this.bigEndian ? value : Integer.reverseBytes(value));
+    }
+
+    @Override
+    public void writeLong(long value) {
+        this.buffer.putLong(this.bigEndian ? value : Long.reverseBytes(value));
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) {
+        this.buffer.put(bytes, offset, length);
+    }
+
+    @Override
+    public void writeUtf8(String value, int utf8Length) throws IOException {
+        if (!this.buffer.hasArray()) {
+            Utf8.encode(value, this);
+            return;
+        }
+
+        if (utf8Length > this.buffer.remaining()) {
+            throw new BufferOverflowException();
+        }
+
+        int arrayOffset = this.buffer.arrayOffset();
+        int end = Utf8.encode(value, this.buffer.array(), arrayOffset + this.buffer.position());
+        this.buffer.position(end - arrayOffset);
+    }
+
+}
@@ -0,0 +1,19 @@
+package net.gauntletmc.adventure.serializer.binary;
+
+/**
+ * Snapshot of the counters of one of the caches of a {@link CachingBinaryComponentSerializer}
+ *
+ * @param hits lookups answered from the cache
+ * @param misses lookups that had to encode or decode
+ * @param evictions entries dropped to stay within the byte budget
+ * @param entries entries currently cached
+ * @param bytes payload bytes currently cached
+ */
+public record CacheStats(long hits, long misses, long evictions, long entries, long bytes) {
+
+    public double hitRate() {
+        long lookups = this.hits + this.misses;
+        return lookups == 0 ? 0 : (double) this.hits / lookups;
+    }
+
+}
@@ -0,0 +1,222 @@
+package net.gauntletmc.adventure.serializer.binary;
+
+import net.kyori.adventure.text.Component;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Serializer remembering recently encoded and decoded components
+ *
+ * Components are immutable, so broadcasting the same instance to many receivers only encodes it once,
+ * later calls cost an identity lookup and a copy of the cached bytes
+ * Components are held weakly and compared by identity, an equal but distinct instance is encoded again
+ *
+ * Receiving the same payload many times only decodes it once, later calls return the same component instance
+ * Only {@link #deserialize(byte[])} consults the decode cache, since the other methods can't know where the payload ends
+ *
+ * Created through {@link BinaryComponentSerializer.Builder#encodeCache(long)} and {@link BinaryComponentSerializer.Builder#decodeCache(long)}
+ */
+public final class CachingBinaryComponentSerializer implements BinaryComponentSerializer {
+
+    private static final CacheStats EMPTY_STATS = new CacheStats(0, 0, 0, 0, 0);
+
+    private final BinaryComponentSerializerImpl delegate;
+
+    private final @Nullable SegmentedLruCache<IdentityKey, byte[]> encoded;
+    private final ReferenceQueue<Component> collected = new ReferenceQueue<>();
+
+    private final @Nullable SegmentedLruCache<PayloadKey, Component> decoded;
+
+    /*package-private*/ CachingBinaryComponentSerializer(BinaryComponentSerializerImpl delegate, long maxEncodedBytes, long maxDecodedBytes) {
+        this.delegate = delegate;
+        this.encoded = maxEncodedBytes > 0 ? new SegmentedLruCache<>(maxEncodedBytes, (key, bytes) -> bytes.length) : null;
+        this.decoded = maxDecodedBytes > 0 ? new SegmentedLruCache<>(maxDecodedBytes, (key, component) -> key.length()) : null;
+    }
+
+    /**
+     * The returned array is cached and must not be modified
+     */
+    private byte[] encoded(Component value) throws IOException {
+        if (this.encoded == null) {
+            return this.delegate.serialize(value);
+        }
+        this.expungeCollected();
+
+        byte[] bytes = this.encoded.get(new IdentityLookup(value));
+        if (bytes == null) {
+            bytes = this.delegate.serialize(value);
+            this.encoded.put(new IdentityKey(value, this.collected), bytes);
+        }
+        return bytes;
+    }
+
+    private void expungeCollected() {
+        if (this.encoded == null) return;
+
+        Reference<? extends Component> key;
+        while ((key = this.collected.poll()) != null) {
+            this.encoded.remove((IdentityKey) key);
+        }
+    }
+
+    /**
+     * @return the counters of the encode cache, all zero if it's disabled
+     */
+    public CacheStats encodeCacheStats() {
+        if (this.encoded == null) return EMPTY_STATS;
+
+        this.expungeCollected();
+        return this.encoded.stats();
+    }
+
+    /**
+     * @return the counters of the decode cache, all zero if it's disabled, its byte count measures payload bytes
+     */
+    public CacheStats decodeCacheStats() {
+        if (this.decoded == null) return EMPTY_STATS;
+
+        return this.decoded.stats();
+    }
+
+    public void invalidateAll() {
+        if (this.encoded != null) this.encoded.clear();
+        if (this.decoded != null) this.decoded.clear();
+    }
+
+    @Override
+    public byte[] serialize(Component value) throws IOException {
+        byte[] bytes = this.encoded(value);
+        return Arrays.copyOf(bytes, bytes.length);
+    }
+
+    @Override
+    public void serialize(Component value, ByteBuffer buffer) throws IOException {
+        buffer.put(this.encoded(value));
+    }
+
+    @Override
+    public int serializedSize(Component value) throws IOException {
+        return this.encoded(value).length;
+    }
+
+    @Override
+    public void serializeComponent(Component value, DataOutputStream output) throws IOException {
+        output.write(this.encoded(value));
+    }
+
+    @Override
+    public byte[] serializeAll(List<Component> values) throws IOException {
+        return this.delegate.serializeAll(values);
+    }
+
+    @Override
+    public Component deserialize(byte[] bytes) throws IOException {
+        if (this.decoded == null) {
+            return this.delegate.deserialize(bytes);
+        }
+
+        PayloadKey key = new PayloadKey(bytes);
+        Component component = this.decoded.get(key);
+        if (component == null) {
+            component = this.delegate.deserialize(bytes);
+            this.decoded.put(key.copy(), component);
+        }
+        return component;
+    }
+
+    @Override
+    public Component deserialize(ByteBuffer buffer) throws IOException {
+        return this.delegate.deserialize(buffer);
+    }
+
+    @Override
+    public Component deserializeComponent(DataInputStream input) throws IOException {
+        return this.delegate.deserializeComponent(input);
+    }
+
+    @Override
+    public List<Component> deserializeAll(ByteBuffer buffer) throws IOException {
+        return this.delegate.deserializeAll(buffer);
+    }
+
+    @Override
+    public void visit(ByteBuffer buffer, ComponentVisitor visitor) throws IOException {
+        this.delegate.visit(buffer, visitor);
+    }
+
+    @Override
+    public int skipComponent(ByteBuffer buffer) throws IOException {
+        return this.delegate.skipComponent(buffer);
+    }
+
+    @Override
+    public String plainText(ByteBuffer buffer) throws IOException {
+        return this.delegate.plainText(buffer);
+    }
+
+    @Override
+    public EncodedComponentView view(ByteBuffer buffer) throws IOException {
+        return this.delegate.view(buffer);
+    }
+
+    @Override
+    public StreamingComponentDecoder streamingDecoder() {
+        return this.delegate.streamingDecoder();
+    }
+
+    /**
+     * Weak key stored in the cache, once cleared it only equals itself so it can still be removed
+     */
+    private static final class IdentityKey extends WeakReference<Component> {
+        private final int hash;
+
+        private IdentityKey(Component referent, ReferenceQueue<Component> queue) {
+            super(referent, queue);
+            this.hash = System.identityHashCode(referent);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (other == this) return true;
+            if (!(other instanceof IdentityKey key)) return false;
+            Component referent = this.get();
+            return referent != null && referent == key.get();
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hash;
+        }
+    }
+
+    /**
+     * Strong probe used for lookups, so a lookup doesn't register a reference with the garbage collector
+     */
+    private static final class IdentityLookup {
+        private final Component referent;
+
+        private IdentityLookup(Component referent) {
+            this.referent = referent;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof IdentityKey key && key.get() == this.referent;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(this.referent);
+        }
+    }
+
+}
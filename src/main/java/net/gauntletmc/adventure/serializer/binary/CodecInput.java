@@ -0,0 +1,122 @@
+package net.gauntletmc.adventure.serializer.binary;
+
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+
+/**
+ * The content of a component written by a {@link ComponentCodec}, read straight from the payload's input
+ * Reading past the content's length fails as if the input ended there
+ *
+ * Reused for every such component of a payload, see {@link #reset(BinaryInput, int)}
+ */
+/*package-private*/ final class CodecInput implements DataInput {
+
+    private BinaryInput input;
+    private int remaining;
+
+    void reset(BinaryInput input, int length) {
+        this.input = input;
+        this.remaining = length;
+    }
+
+    int remaining() {
+        return this.remaining;
+    }
+
+    private void take(int length) throws EOFException {
+        if (length > this.remaining) {
+            throw new EOFException();
+        }
+        this.remaining -= length;
+    }
+
+    @Override
+    public void readFully(byte[] bytes) throws IOException {
+        readFully(bytes, 0, bytes.length);
+    }
+
+    @Override
+    public void readFully(byte[] bytes, int offset, int length) throws IOException {
+        take(length);
+        this.input.readFully(bytes, offset, length);
+    }
+
+    @Override
+    public int skipBytes(int length) throws IOException {
+        int skipped = Math.max(Math.min(length, this.remaining), 0);
+        take(skipped);
+        for (int i = 0; i < skipped; i++) {
+            this.input.readByte();
+        }
+        return skipped;
+    }
+
+    @Override
+    public boolean readBoolean() throws IOException {
+        return readByte() != 0;
+    }
+
+    @Override
+    public byte readByte() throws IOException {
+        take(1);
+        return this.input.readByte();
+    }
+
+    @Override
+    public int readUnsignedByte() throws IOException {
+        return readByte() & 0xFF;
+    }
+
+    @Override
+    public short readShort() throws IOException {
+        return (short) readUnsignedShort();
+    }
+
+    @Override
+    public int readUnsignedShort() throws IOException {
+        return (readUnsignedByte() << 8) | readUnsignedByte();
+    }
+
+    @Override
+    public char readChar() throws IOException {
+        return (char) readUnsignedShort();
+    }
+
+    @Override
+    public int readInt() throws IOException {
+        take(4);
+        return this.input.readInt();
+    }
+
+    @Override
+    public long readLong() throws IOException {
+        take(8);
+        return this.input.readLong();
+    }
+
+    @Override
+    public float readFloat() throws IOException {
+        return Float.intBitsToFloat(readInt());
+    }
+
+    @Override
+    public double readDouble() throws IOException {
+        return Double.longBitsToDouble(readLong());
+    }
+
+    /**
+     * Not supported, like {@link DataInputStream#readLine()} it can't decode anything but Latin-1
+     */
+    @Override
+    public String readLine() {
+        throw new UnsupportedOperationException("readLine is not supported, use readUTF");
+    }
+
+    @Override
+    public String readUTF() throws IOException {
+        return DataInputStream.readUTF(this);
+    }
+
+}
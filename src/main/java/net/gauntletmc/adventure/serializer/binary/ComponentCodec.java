@@ -0,0 +1,40 @@
+package net.gauntletmc.adventure.serializer.binary;
+
+import net.kyori.adventure.text.Component;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Writes and reads components of a type this library doesn't know, see {@link BinaryComponentSerializer.Builder#codec(ComponentCodec)}
+ *
+ * A codec only handles the content of its components, their style and children are written and read like those of
+ * any other component. The content is written with its length, so serializers without the codec can still skip,
+ * validate and extract the plain text of payloads containing such components, only building or visiting them fails
+ *
+ * @param <C> the component type, components implementing it are written by the codec instead of as a built-in type
+ */
+public interface ComponentCodec<C extends Component> {
+
+    /**
+     * Written into the payload to find the codec again when reading, unique among the codecs of a serializer
+     * Must never change once payloads written with it are stored anywhere
+     */
+    int id();
+
+    Class<C> type();
+
+    /**
+     * Writes everything of the component except its style and children
+     */
+    void write(C value, DataOutput output) throws IOException;
+
+    /**
+     * Reads what {@link #write(Component, DataOutput)} wrote, all of it
+     *
+     * @return the component without style and children, which are set on it afterwards
+     */
+    C read(DataInput input) throws IOException;
+
+}
@@ -0,0 +1,93 @@
+package net.gauntletmc.adventure.serializer.binary;
+
+import net.kyori.adventure.text.*;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static net.gauntletmc.adventure.serializer.binary.BinaryComponentSerializerImpl.*;
+
+/**
+ * The codecs of a serializer, and what every component class is written as
+ *
+ * A class is only tested against the component interfaces the first time it's seen, later lookups are a
+ * {@link ClassValue} hit. Codecs are tested first, so a codec can take over a subtype of a built-in component type
+ */
+/*package-private*/ final class ComponentCodecs {
+
+    static final ComponentCodecs NONE = new ComponentCodecs(List.of());
+
+    /**
+     * @param type one of the COMPONENT_* types, or -1 if the class can't be written
+     * @param codec the codec writing the class with COMPONENT_CUSTOM, null for the built-in types
+     */
+    record Dispatch(byte type, @Nullable ComponentCodec<?> codec) {}
+
+    private static final Dispatch UNKNOWN = new Dispatch((byte) -1, null);
+    private static final Dispatch TEXT = new Dispatch(COMPONENT_TEXT, null);
+    private static final Dispatch TRANSLATABLE = new Dispatch(COMPONENT_TRANSLATABLE, null);
+    private static final Dispatch SCORE = new Dispatch(COMPONENT_SCORE, null);
+    private static final Dispatch SELECTOR = new Dispatch(COMPONENT_SELECTOR, null);
+    private static final Dispatch KEYBIND = new Dispatch(COMPONENT_KEYBIND, null);
+    private static final Dispatch BLOCK_NBT = new Dispatch(COMPONENT_BLOCK_NBT, null);
+    private static final Dispatch ENTITY_NBT = new Dispatch(COMPONENT_ENTITY_NBT, null);
+    private static final Dispatch STORAGE_NBT = new Dispatch(COMPONENT_STORAGE_NBT, null);
+
+    private final List<ComponentCodec<?>> codecs;
+    private final Map<Integer, ComponentCodec<?>> byId = new HashMap<>();
+
+    private final ClassValue<Dispatch> dispatch = new ClassValue<>() {
+        @Override
+        protected Dispatch computeValue(Class<?> type) {
+            return ComponentCodecs.this.resolve(type);
+        }
+    };
+
+    ComponentCodecs(List<ComponentCodec<?>> codecs) {
+        this.codecs = List.copyOf(codecs);
+        for (ComponentCodec<?> codec : this.codecs) {
+            if (codec.id() < 0) {
+                throw new IllegalArgumentException("Codec ids must not be negative");
+            }
+            if (this.byId.putIfAbsent(codec.id(), codec) != null) {
+                throw new IllegalArgumentException("Duplicate codec id " + codec.id());
+            }
+        }
+    }
+
+    Dispatch dispatch(Component value) {
+        return this.dispatch.get(value.getClass());
+    }
+
+    /**
+     * @throws IllegalStateException if the serializer has no codec with the id
+     */
+    ComponentCodec<?> codec(int id) {
+        ComponentCodec<?> codec = this.byId.get(id);
+        if (codec == null) {
+            throw new IllegalStateException("Unknown component codec " + id + "! Can't deserialize");
+        }
+        return codec;
+    }
+
+    private Dispatch resolve(Class<?> type) {
+        for (ComponentCodec<?> codec : this.codecs) {
+            if (codec.type().isAssignableFrom(type)) {
+                return new Dispatch(COMPONENT_CUSTOM, codec);
+            }
+        }
+
+        if (TextComponent.class.isAssignableFrom(type)) return TEXT;
+        if (TranslatableComponent.class.isAssignableFrom(type)) return TRANSLATABLE;
+        if (ScoreComponent.class.isAssignableFrom(type)) return SCORE;
+        if (SelectorComponent.class.isAssignableFrom(type)) return SELECTOR;
+        if (KeybindComponent.class.isAssignableFrom(type)) return KEYBIND;
+        if (BlockNBTComponent.class.isAssignableFrom(type)) return BLOCK_NBT;
+        if (EntityNBTComponent.class.isAssignableFrom(type)) return ENTITY_NBT;
+        if (StorageNBTComponent.class.isAssignableFrom(type)) return STORAGE_NBT;
+        return UNKNOWN;
+    }
+
+}
@@ -0,0 +1,244 @@
+package net.gauntletmc.adventure.serializer.binary;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.TextComponent;
+import net.kyori.adventure.text.TranslatableComponent;
+import net.kyori.adventure.text.event.HoverEvent;
+import net.kyori.adventure.text.format.Style;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static net.gauntletmc.adventure.serializer.binary.BinaryComponentSerializerImpl.effectiveStyle;
+
+/**
+ * Rewrites a component into one with fewer nodes rendering the same, see {@link BinaryComponentSerializer.Builder#compact(boolean)}
+ *
+ * Children, translatable arguments and show text hover texts are compacted bottom up, with nesting kept on an explicit
+ * stack of frames like {@link ComponentEncoder} does. A component nothing could be compacted in is returned as it is,
+ * so equal subtrees stay shared
+ */
+/*package-private*/ final class ComponentCompactor {
+
+    private static final int START = 0;
+    private static final int ARGS = 1;
+    private static final int HOVER = 2;
+    private static final int CHILDREN = 3;
+
+    private static final class Frame {
+        private Component value;
+        private int step;
+        // Translatable arguments or children, whichever are being compacted, and the results so far
+        private List<Component> nested;
+        private @Nullable List<Component> compacted;
+        private int index;
+        // The style inherited from the parent and the one the children inherit
+        private Style reference;
+        private Style effective;
+    }
+
+    private Frame[] frames = new Frame[8];
+    private int depth = 0;
+
+    private ComponentCompactor() {
+    }
+
+    static Component compact(Component value) {
+        return new ComponentCompactor().run(value);
+    }
+
+    private Component run(Component value) {
+        this.push(value, Style.empty());
+
+        Component result = null;
+        while (true) {
+            Frame frame = this.frames[this.depth - 1];
+            Component nested = this.resume(frame, result);
+
+            if (nested != null) {
+                // Only children inherit the style, see BinaryComponentSerializerImpl#effectiveStyle
+                this.push(nested, frame.step == CHILDREN ? frame.effective : Style.empty());
+                result = null;
+                continue;
+            }
+
+            result = frame.value;
+            frame.value = null;
+            frame.nested = null;
+            frame.compacted = null;
+            frame.reference = null;
+            frame.effective = null;
+            if (--this.depth == 0) {
+                return result;
+            }
+        }
+    }
+
+    private void push(Component value, Style reference) {
+        if (this.depth == this.frames.length) {
+            this.frames = Arrays.copyOf(this.frames, this.depth << 1);
+        }
+        Frame frame = this.frames[this.depth];
+        if (frame == null) {
+            frame = this.frames[this.depth] = new Frame();
+        }
+        frame.value = value;
+        frame.step = START;
+        frame.reference = reference;
+        this.depth++;
+    }
+
+    /**
+     * Compacts the frame's component up to the next nested component, leaving the compacted component in the frame
+     *
+     * @param result the compacted nested component returned last time, null if there is none
+     * @return the nested component to compact before continuing, or null once the frame's component is complete
+     */
+    private @Nullable Component resume(Frame frame, @Nullable Component result) {
+        while (true) {
+            switch (frame.step) {
+                case START -> {
+                    frame.step = HOVER;
+                    if (frame.value instanceof TranslatableComponent translatable && !translatable.args().isEmpty()) {
+                        this.begin(frame, translatable.args());
+                        frame.step = ARGS;
+                    }
+                }
+                case ARGS -> {
+                    if (result != null) {
+                        frame.compacted.add(result);
+                        result = null;
+                    }
+                    if (frame.index < frame.nested.size()) {
+                        return frame.nested.get(frame.index++);
+                    }
+
+                    if (changed(frame.nested, frame.compacted)) {
+                        frame.value = ((TranslatableComponent) frame.value).args(frame.compacted);
+                    }
+                    frame.step = HOVER;
+                }
+                case HOVER -> {
+                    Style style = frame.value.style();
+                    HoverEvent<?> hover = style.hoverEvent();
+                    if (result != null) {
+                        if (result != hover.value()) {
+                            frame.value = frame.value.style(style.hoverEvent(HoverEvent.showText(result)));
+                        }
+                        result = null;
+                    } else if (hover != null && hover.action() == HoverEvent.Action.SHOW_TEXT) {
+                        // Back here with the compacted hover text next time
+                        return (Component) hover.value();
+                    }
+
+                    frame.effective = effectiveStyle(frame.reference, frame.value.style());
+                    this.begin(frame, frame.value.children());
+                    frame.step = CHILDREN;
+                }
+                case CHILDREN -> {
+                    if (result != null) {
+                        this.addChild(frame, result);
+                        result = null;
+                    }
+                    if (frame.index < frame.nested.size()) {
+                        return frame.nested.get(frame.index++);
+                    }
+
+                    this.finish(frame);
+                    return null;
+                }
+                default -> throw new IllegalStateException("Unknown step " + frame.step);
+            }
+        }
+    }
+
+    private void begin(Frame frame, List<Component> nested) {
+        frame.nested = nested;
+        frame.compacted = new ArrayList<>(nested.size());
+        frame.index = 0;
+    }
+
+    /**
+     * Adds a compacted child, dropping it if it renders nothing, splicing in its children if it only groups them
+     * and merging it into the previous child if it's text continuing it
+     */
+    private void addChild(Frame frame, Component child) {
+        List<Component> compacted = frame.compacted;
+
+        if (child instanceof TextComponent text && text.content().isEmpty()) {
+            if (child.children().isEmpty()) {
+                return;
+            }
+            if (!child.hasStyling()) {
+                // The children were compacted inheriting what they inherit from here
+                for (Component grandchild : child.children()) {
+                    this.addChild(frame, grandchild);
+                }
+                return;
+            }
+        }
+
+        int last = compacted.size() - 1;
+        if (last >= 0 && this.continues(frame.effective, compacted.get(last), child)) {
+            TextComponent previous = (TextComponent) compacted.get(last);
+            TextComponent text = (TextComponent) child;
+            compacted.set(last, text.content(previous.content() + text.content()));
+            return;
+        }
+        compacted.add(child);
+    }
+
+    /**
+     * @return whether the text of both components can be one component, the second one's children following it
+     */
+    private boolean continues(Style reference, Component previous, Component next) {
+        return previous instanceof TextComponent && next instanceof TextComponent
+                && previous.children().isEmpty()
+                && effectiveStyle(reference, previous.style()).equals(effectiveStyle(reference, next.style()));
+    }
+
+    private void finish(Frame frame) {
+        List<Component> children = frame.compacted;
+
+        // Leading text children adding nothing to the style continue the component's own text
+        if (frame.value instanceof TextComponent text) {
+            int absorbed = 0;
+            StringBuilder content = null;
+            for (Component child : children) {
+                if (!(child instanceof TextComponent childText) || !child.children().isEmpty()
+                        || !effectiveStyle(frame.effective, child.style()).equals(frame.effective)) break;
+
+                if (content == null) {
+                    content = new StringBuilder(text.content());
+                }
+                content.append(childText.content());
+                absorbed++;
+            }
+            if (absorbed > 0) {
+                frame.value = text.content(content.toString());
+                children = children.subList(absorbed, children.size());
+            }
+        }
+
+        if (changed(frame.value.children(), children)) {
+            frame.value = frame.value.children(children);
+        }
+
+        // A wrapper without text of its own is replaced by its only child, which takes over its style
+        if (frame.value instanceof TextComponent text && text.content().isEmpty() && children.size() == 1) {
+            Component child = children.get(0);
+            frame.value = text.hasStyling() ? child.style(text.style().merge(child.style())) : child;
+        }
+    }
+
+    private static boolean changed(List<Component> original, List<Component> compacted) {
+        if (original.size() != compacted.size()) return true;
+        for (int i = 0; i < original.size(); i++) {
+            if (original.get(i) != compacted.get(i)) return true;
+        }
+        return false;
+    }
+
+}
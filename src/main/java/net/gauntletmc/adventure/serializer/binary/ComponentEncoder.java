@@ -0,0 +1,275 @@
+package net.gauntletmc.adventure.serializer.binary;
+
+import net.kyori.adventure.text.*;
+import net.kyori.adventure.text.format.Style;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+import static net.gauntletmc.adventure.serializer.binary.BinaryComponentSerializerImpl.*;
+
+/**
+ * Writes one component with its nesting kept on an explicit stack of frames instead of the call stack,
+ * every frame remembers the step it's at
+ *
+ * Frames are reused as the stack shrinks and grows again, only reaching a new depth allocates one
+ */
+/*package-private*/ final class ComponentEncoder {
+
+    private static final int HEAD = 0;
+    private static final int ARGS = 1;
+    private static final int SEPARATOR = 2;
+    private static final int NBT_TAIL = 3;
+    private static final int DATA = 4;
+    private static final int STYLE_END = 5;
+    private static final int CHILDREN = 6;
+
+    private static final class Frame {
+        private Component value;
+        private int step;
+        // The COMPONENT_* type it's written as
+        private byte type;
+        // Translatable arguments or children, whichever are being written
+        private List<Component> nested;
+        private int index;
+        // With style deltas, the style inherited from the parent and the one the children inherit
+        private Style reference;
+        private Style effective;
+    }
+
+    private final BinaryComponentSerializerImpl serializer;
+    private final BinaryOutput output;
+    private final EncoderState encoder;
+
+    private Frame[] frames = new Frame[8];
+    private int depth = 0;
+    private int nodes = 0;
+
+    ComponentEncoder(BinaryComponentSerializerImpl serializer, BinaryOutput output, EncoderState encoder) {
+        this.serializer = serializer;
+        this.output = output;
+        this.encoder = encoder;
+    }
+
+    void encode(Component value) throws IOException {
+        this.push(value, Style.empty());
+
+        while (this.depth > 0) {
+            Frame frame = this.frames[this.depth - 1];
+            Component nested = this.resume(frame);
+
+            if (nested != null) {
+                // Only children inherit the style, see BinaryComponentSerializerImpl#effectiveStyle
+                // A hover text can be returned at the children step too, but before the first child
+                boolean child = frame.step == CHILDREN && frame.index > 0;
+                this.push(nested, child && frame.effective != null ? frame.effective : Style.empty());
+            } else {
+                frame.value = null;
+                frame.nested = null;
+                frame.reference = null;
+                frame.effective = null;
+                this.depth--;
+            }
+        }
+    }
+
+    private void push(Component value, Style reference) {
+        BinaryComponentSerializerImpl serializer = this.serializer;
+        if (this.depth == serializer.maxDepth) {
+            throw new IllegalArgumentException("Components nested deeper than " + serializer.maxDepth + "! Can't serialize");
+        }
+        if (++this.nodes > serializer.maxNodes) {
+            throw new IllegalArgumentException("More than " + serializer.maxNodes + " components! Can't serialize");
+        }
+
+        if (this.depth == this.frames.length) {
+            this.frames = Arrays.copyOf(this.frames, this.depth << 1);
+        }
+        Frame frame = this.frames[this.depth];
+        if (frame == null) {
+            frame = this.frames[this.depth] = new Frame();
+        }
+        frame.value = value;
+        frame.step = HEAD;
+        frame.reference = reference;
+        this.depth++;
+    }
+
+    /**
+     * Writes the frame's component up to the next nested component
+     *
+     * @return the nested component to write before continuing, or null once the frame's component is complete
+     */
+    private @Nullable Component resume(Frame frame) throws IOException {
+        BinaryComponentSerializerImpl serializer = this.serializer;
+        BinaryOutput output = this.output;
+        EncoderState encoder = this.encoder;
+        Component value = frame.value;
+
+        while (true) {
+            switch (frame.step) {
+                case HEAD -> {
+                    if (encoder.components != null) {
+                        int index = encoder.components.find(value);
+                        if (index >= 0) {
+                            output.writeByte(COMPONENT_REFERENCE);
+                            serializeVarInt(index, output);
+                            return null;
+                        }
+                    }
+                    this.head(frame, value);
+                }
+                case ARGS -> {
+                    if (frame.index < frame.nested.size()) {
+                        return frame.nested.get(frame.index++);
+                    }
+                    frame.step = DATA;
+                }
+                case SEPARATOR -> {
+                    Component separator;
+                    if (frame.type == COMPONENT_SELECTOR) {
+                        separator = ((SelectorComponent) value).separator();
+                        frame.step = DATA;
+                    } else {
+                        separator = ((NBTComponent<?, ?>) value).separator();
+                        frame.step = NBT_TAIL;
+                    }
+
+                    output.writeBoolean(separator != null);
+                    if (separator != null) {
+                        return separator;
+                    }
+                }
+                case NBT_TAIL -> {
+                    switch (frame.type) {
+                        case COMPONENT_BLOCK_NBT -> serializer.serializeBlockNbtPos(((BlockNBTComponent) value).pos(), output);
+                        case COMPONENT_ENTITY_NBT -> serializer.serializeString(((EntityNBTComponent) value).selector(), output, encoder);
+                        default -> serializer.serializeKey(((StorageNBTComponent) value).storage(), output, encoder);
+                    }
+                    frame.step = DATA;
+                }
+                case DATA -> {
+                    frame.nested = value.children();
+                    frame.index = 0;
+                    frame.step = CHILDREN;
+
+                    boolean styled = value.hasStyling();
+                    serializeVarInt((frame.nested.size() << 1) | (styled ? 1 : 0), output);
+
+                    if (encoder.styleDelta && !frame.nested.isEmpty()) {
+                        frame.effective = effectiveStyle(frame.reference, styled ? value.style() : null);
+                    }
+
+                    if (styled) {
+                        Component hover = this.style(frame, value.style());
+                        if (hover != null) {
+                            return hover;
+                        }
+                    }
+                }
+                case STYLE_END -> {
+                    // A style enters the table once fully written, including its hover event
+                    encoder.styles.put(value.style(), encoder.styles.size());
+                    frame.step = CHILDREN;
+                }
+                case CHILDREN -> {
+                    if (frame.index < frame.nested.size()) {
+                        return frame.nested.get(frame.index++);
+                    }
+
+                    // Subtrees enter the table once fully written, the decoder adds them once fully built
+                    if (encoder.components != null) {
+                        encoder.components.add(value);
+                    }
+                    return null;
+                }
+                default -> throw new IllegalStateException("Unknown step " + frame.step);
+            }
+        }
+    }
+
+    /**
+     * Writes the type and the fields before the first nested component, moving the frame to the step after them
+     * What the component is written as is looked up by its class, see {@link ComponentCodecs}
+     */
+    private void head(Frame frame, Component value) throws IOException {
+        BinaryComponentSerializerImpl serializer = this.serializer;
+        BinaryOutput output = this.output;
+        EncoderState encoder = this.encoder;
+
+        ComponentCodecs.Dispatch dispatch = serializer.codecs.dispatch(value);
+        frame.type = dispatch.type();
+        switch (dispatch.type()) {
+            case COMPONENT_TEXT -> {
+                output.writeByte(COMPONENT_TEXT);
+                serializer.serializeString(((TextComponent) value).content(), output, encoder);
+                frame.step = DATA;
+            }
+            case COMPONENT_TRANSLATABLE -> {
+                TranslatableComponent translatable = (TranslatableComponent) value;
+                output.writeByte(COMPONENT_TRANSLATABLE);
+                serializer.serializeString(translatable.key(), output, encoder);
+
+                frame.nested = translatable.args();
+                frame.index = 0;
+                output.writeByte((byte) frame.nested.size());
+                frame.step = ARGS;
+            }
+            case COMPONENT_SCORE -> {
+                ScoreComponent score = (ScoreComponent) value;
+                output.writeByte(COMPONENT_SCORE);
+                serializer.serializeString(score.name(), output, encoder);
+                serializer.serializeString(score.objective(), output, encoder);
+                frame.step = DATA;
+            }
+            case COMPONENT_SELECTOR -> {
+                output.writeByte(COMPONENT_SELECTOR);
+                serializer.serializeString(((SelectorComponent) value).pattern(), output, encoder);
+                frame.step = SEPARATOR;
+            }
+            case COMPONENT_KEYBIND -> {
+                output.writeByte(COMPONENT_KEYBIND);
+                serializer.serializeString(((KeybindComponent) value).keybind(), output, encoder);
+                frame.step = DATA;
+            }
+            case COMPONENT_BLOCK_NBT, COMPONENT_ENTITY_NBT, COMPONENT_STORAGE_NBT -> {
+                NBTComponent<?, ?> nbt = (NBTComponent<?, ?>) value;
+                output.writeByte(dispatch.type());
+                serializer.serializeString(nbt.nbtPath(), output, encoder);
+                output.writeBoolean(nbt.interpret());
+                frame.step = SEPARATOR;
+            }
+            case COMPONENT_CUSTOM -> {
+                output.writeByte(COMPONENT_CUSTOM);
+                serializeCustom(dispatch.codec(), value, output);
+                frame.step = DATA;
+            }
+            default -> throw notSureHowToSerialize(value);
+        }
+    }
+
+    /**
+     * Writes the style of the frame's component, through the style table if it's in use
+     *
+     * @return the component of the hover event to write next, or null if there is none
+     */
+    private @Nullable Component style(Frame frame, Style style) throws IOException {
+        EncoderState encoder = this.encoder;
+
+        if (encoder.styles != null) {
+            // Style table: 0 means a new style follows, anything else references an earlier one
+            Integer index = encoder.styles.get(style);
+            if (index != null) {
+                serializeVarInt(index + 1, this.output);
+                return null;
+            }
+
+            this.output.writeByte(0);
+            frame.step = STYLE_END;
+        }
+        return this.serializer.serializeStyle(style, encoder.styleDelta ? frame.reference : null, this.output, encoder);
+    }
+
+}
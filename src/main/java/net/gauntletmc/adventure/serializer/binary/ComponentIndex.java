@@ -0,0 +1,70 @@
+package net.gauntletmc.adventure.serializer.binary;
+
+import java.util.Arrays;
+
+/**
+ * Offsets of every component in a payload and of their children, recorded in one pass by {@link PayloadReader}
+ *
+ * Components are recorded in the order they start, so their offsets are ascending and can be binary searched
+ * The child offsets of all components share one array, children that are subtree references point at the referenced component
+ */
+/*package-private*/ final class ComponentIndex {
+
+    private int[] offsets = new int[16];
+    private int[] firstChildren = new int[16];
+    private int[] childCounts = new int[16];
+    private int count = 0;
+
+    private int[] children = new int[16];
+    private int childrenSize = 0;
+
+    /**
+     * @return the node of the component
+     */
+    int add(int offset) {
+        if (this.count == this.offsets.length) {
+            this.offsets = Arrays.copyOf(this.offsets, this.count << 1);
+            this.firstChildren = Arrays.copyOf(this.firstChildren, this.count << 1);
+            this.childCounts = Arrays.copyOf(this.childCounts, this.count << 1);
+        }
+        this.offsets[this.count] = offset;
+        return this.count++;
+    }
+
+    /**
+     * Reserves room for the children of a node, filled through {@link #child(int, int)}
+     *
+     * @return the slot of the first child
+     */
+    int children(int node, int count) {
+        int slot = this.childrenSize;
+        if (slot + count > this.children.length) {
+            this.children = Arrays.copyOf(this.children, Math.max(slot + count, this.children.length << 1));
+        }
+        this.firstChildren[node] = slot;
+        this.childCounts[node] = count;
+        this.childrenSize += count;
+        return slot;
+    }
+
+    void child(int slot, int offset) {
+        this.children[slot] = offset;
+    }
+
+    /**
+     * @return the node of the component at the offset, or -1 if none starts there
+     */
+    int find(int offset) {
+        int node = Arrays.binarySearch(this.offsets, 0, this.count, offset);
+        return node >= 0 ? node : -1;
+    }
+
+    int childCount(int node) {
+        return this.childCounts[node];
+    }
+
+    int childOffset(int node, int index) {
+        return this.children[this.firstChildren[node] + index];
+    }
+
+}
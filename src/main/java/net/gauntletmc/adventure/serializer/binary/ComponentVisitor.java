@@ -0,0 +1,127 @@
+package net.gauntletmc.adventure.serializer.binary;
+
+import net.kyori.adventure.key.Key;
+import net.kyori.adventure.text.BlockNBTComponent;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.event.ClickEvent;
+import net.kyori.adventure.text.format.TextDecoration;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.UUID;
+
+/**
+ * Receives the contents of an encoded component in the order they were written, without the component being built
+ * See {@link BinaryComponentSerializer#visit(java.nio.ByteBuffer, ComponentVisitor)}
+ *
+ * Strings are only decoded for the callbacks receiving them, returning false from {@link #enterComponent(Position)}
+ * or {@link #enterStyle()} skips that part without decoding any of it
+ * Back-referenced styles and subtrees are reported again in full, so the events don't depend on the encoding options
+ */
+public interface ComponentVisitor {
+
+    /**
+     * Where a component appears relative to the one containing it
+     */
+    enum Position {
+        ROOT,
+        CHILD,
+        TRANSLATABLE_ARGUMENT,
+        SEPARATOR,
+        HOVER_TEXT,
+        ENTITY_NAME
+    }
+
+    /**
+     * Called before anything else of a component
+     *
+     * @return false to skip the component including its style and children, {@link #exitComponent()} isn't called for it then
+     */
+    default boolean enterComponent(Position position) {
+        return true;
+    }
+
+    default void text(String content) {}
+
+    /**
+     * Followed by the arguments, each entered with {@link Position#TRANSLATABLE_ARGUMENT}
+     */
+    default void translatable(String key, int argumentCount) {}
+
+    default void score(String name, String objective) {}
+
+    /**
+     * Followed by the separator if there is one, entered with {@link Position#SEPARATOR}
+     */
+    default void selector(String pattern) {}
+
+    default void keybind(String keybind) {}
+
+    /**
+     * Followed by the separator if there is one, then {@link #blockNbtPos(BlockNBTComponent.Pos)}
+     */
+    default void blockNbt(String nbtPath, boolean interpret) {}
+
+    default void blockNbtPos(BlockNBTComponent.Pos pos) {}
+
+    /**
+     * Followed by the separator if there is one, then {@link #entityNbtSelector(String)}
+     */
+    default void entityNbt(String nbtPath, boolean interpret) {}
+
+    default void entityNbtSelector(String selector) {}
+
+    /**
+     * Followed by the separator if there is one, then {@link #storageNbtKey(Key)}
+     */
+    default void storageNbt(String nbtPath, boolean interpret) {}
+
+    default void storageNbtKey(Key storage) {}
+
+    /**
+     * Called for a component written by a {@link ComponentCodec}, with what the codec read: the component
+     * without its style and children, which are reported like those of any other component
+     */
+    default void custom(Component content) {}
+
+    /**
+     * Called after the content and style of a component, before its children are entered with {@link Position#CHILD}
+     * Not called for components without children
+     */
+    default void children(int count) {}
+
+    default void exitComponent() {}
+
+    /**
+     * Called after the content of a component that has styling
+     *
+     * @return false to skip the style, {@link #exitStyle()} isn't called for it then
+     */
+    default boolean enterStyle() {
+        return true;
+    }
+
+    /**
+     * Only called for decorations that are set
+     */
+    default void decoration(TextDecoration decoration, TextDecoration.State state) {}
+
+    default void color(int rgb) {}
+
+    default void font(Key font) {}
+
+    default void insertion(String insertion) {}
+
+    default void clickEvent(ClickEvent.Action action, String value) {}
+
+    default void showItem(Key item, int count, @Nullable String nbt) {}
+
+    /**
+     * Followed by the entity name if there is one, entered with {@link Position#ENTITY_NAME}
+     */
+    default void showEntity(Key type, UUID id) {}
+
+    // A show text hover event is reported as a component entered with Position.HOVER_TEXT
+
+    default void exitStyle() {}
+
+}
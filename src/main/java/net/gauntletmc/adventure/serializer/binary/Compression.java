@@ -0,0 +1,155 @@
+package net.gauntletmc.adventure.serializer.binary;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import static net.gauntletmc.adventure.serializer.binary.BinaryComponentSerializerImpl.*;
+
+/**
+ * Compressed frames, see {@link BinaryComponentSerializer.Builder#compression(int)}
+ *
+ * A frame is {@link BinaryComponentSerializerImpl#VERSION_COMPRESSED}, the varint id of the preset dictionary or 0,
+ * the varint length of the payload, the varint length of the compressed bytes and those bytes, raw deflate data
+ * of a complete uncompressed payload
+ */
+/*package-private*/ final class Compression {
+
+    // Deflaters and inflaters hold native memory and are costly to set up, they are kept per thread with their buffers
+    private static final InstancePool<Deflating> DEFLATERS = new InstancePool<>(Deflating::new, deflating -> deflating.deflater.end());
+    private static final InstancePool<Inflating> INFLATERS = new InstancePool<>(Inflating::new, inflating -> inflating.inflater.end());
+
+    private static final int INITIAL_CAPACITY = 256;
+    private static final int MAX_RETAINED_CAPACITY = 64 * 1024;
+    private static final int INPUT_CHUNK = 8192;
+
+    private Compression() {
+    }
+
+    private static final class Deflating {
+        private final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        private byte[] buffer = new byte[INITIAL_CAPACITY];
+    }
+
+    private static final class Inflating {
+        private final Inflater inflater = new Inflater(true);
+        private final byte[] input = new byte[INPUT_CHUNK];
+    }
+
+    /**
+     * Replaces the payload at the end of the scratch buffer with a compressed frame, unless that wouldn't be smaller
+     *
+     * @param start the offset the payload starts at
+     */
+    static void compress(ScratchBuffer scratch, int start, @Nullable CompressionDictionary dictionary) throws IOException {
+        int length = scratch.size() - start;
+
+        Deflating deflating = DEFLATERS.acquire();
+        try {
+            Deflater deflater = deflating.deflater;
+            deflater.reset();
+            if (dictionary != null) {
+                deflater.setDictionary(dictionary.array());
+            }
+            deflater.setInput(scratch.array(), start, length);
+            deflater.finish();
+
+            // Varint lengths and the version byte take at most 16 bytes, compressing has to save more than that
+            int budget = length - 16;
+            if (budget <= 0) return;
+            if (deflating.buffer.length < budget) {
+                deflating.buffer = new byte[Math.max(budget, deflating.buffer.length << 1)];
+            }
+
+            int compressed = 0;
+            while (!deflater.finished()) {
+                if (compressed >= budget) return;
+                compressed += deflater.deflate(deflating.buffer, compressed, budget - compressed);
+            }
+
+            scratch.truncate(start);
+            scratch.writeByte(VERSION_COMPRESSED);
+            serializeVarInt(dictionary != null ? dictionary.id() : 0, scratch);
+            serializeVarInt(length, scratch);
+            serializeVarInt(compressed, scratch);
+            scratch.write(deflating.buffer, 0, compressed);
+        } finally {
+            if (deflating.buffer.length > MAX_RETAINED_CAPACITY) {
+                deflating.buffer = new byte[INITIAL_CAPACITY];
+            }
+            DEFLATERS.release(deflating);
+        }
+    }
+
+    /**
+     * Reads a compressed frame after its version byte
+     *
+     * @param dictionary the serializer's dictionary, frames compressed with any other can't be read
+     * @return the payload
+     */
+    static byte[] inflate(BinaryInput input, @Nullable CompressionDictionary dictionary, DecoderLimits limits) throws IOException {
+        int id = deserializeVarInt(input);
+        if (id != 0 && (dictionary == null || dictionary.id() != id)) {
+            throw new IllegalStateException("Unknown compression dictionary " + id + "! Can't deserialize");
+        }
+
+        int length = deserializeVarInt(input);
+        int remaining = deserializeVarInt(input);
+        if (length < 0 || remaining < 0) {
+            throw new IllegalStateException("Negative compressed frame length! Can't deserialize");
+        }
+        // The compressed bytes are counted as they are read, the payload has to fit the limit on its own
+        limits.checkBytes(length);
+
+        Inflating inflating = INFLATERS.acquire();
+        try {
+            Inflater inflater = inflating.inflater;
+            inflater.reset();
+            if (id != 0) {
+                inflater.setDictionary(dictionary.array());
+            }
+
+            // The length comes from the payload, don't trust it for the initial capacity
+            byte[] payload = new byte[Math.min(length, MAX_RETAINED_CAPACITY)];
+            int inflated = 0;
+            while (inflated < length) {
+                if (inflater.needsInput()) {
+                    if (remaining == 0) {
+                        throw corrupt(null);
+                    }
+                    int chunk = Math.min(remaining, inflating.input.length);
+                    input.readFully(inflating.input, 0, chunk);
+                    inflater.setInput(inflating.input, 0, chunk);
+                    remaining -= chunk;
+                }
+
+                if (inflated == payload.length) {
+                    payload = Arrays.copyOf(payload, (int) Math.min(length, (long) payload.length << 1));
+                }
+                int read = inflater.inflate(payload, inflated, payload.length - inflated);
+                if (read == 0 && (inflater.finished() || inflater.needsDictionary())) {
+                    throw corrupt(null);
+                }
+                inflated += read;
+            }
+
+            if (remaining != 0 || inflater.getRemaining() != 0) {
+                throw corrupt(null);
+            }
+            return payload;
+        } catch (DataFormatException e) {
+            throw corrupt(e);
+        } finally {
+            INFLATERS.release(inflating);
+        }
+    }
+
+    private static IllegalStateException corrupt(@Nullable DataFormatException cause) {
+        return new IllegalStateException("Corrupt compressed frame! Can't deserialize", cause);
+    }
+
+}
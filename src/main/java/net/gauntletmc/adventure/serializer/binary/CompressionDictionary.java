@@ -0,0 +1,177 @@
+package net.gauntletmc.adventure.serializer.binary;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Preset dictionary priming the compression of payloads, see {@link BinaryComponentSerializer.Builder#compression(int)}
+ * Byte sequences common to many payloads are compressed as references into the dictionary even in the first payload
+ *
+ * The id is written into every frame compressed with the dictionary and must change whenever the bytes do
+ */
+public final class CompressionDictionary {
+
+    /**
+     * Deflate can't reference further back than its window, anything before the last 32 KiB is useless
+     */
+    public static final int MAX_SIZE = 32 * 1024;
+
+    // Length of the byte sequences counted while training, and of the segments picked from the samples
+    private static final int KMER_LENGTH = 8;
+    private static final int SEGMENT_LENGTH = 64;
+
+    private final int id;
+    private final byte[] bytes;
+
+    private CompressionDictionary(int id, byte[] bytes) {
+        this.id = id;
+        this.bytes = bytes;
+    }
+
+    /**
+     * Content closer to the end of the dictionary is cheaper to reference, so the most frequent content should come last
+     */
+    public static CompressionDictionary of(int id, byte[] bytes) {
+        if (id <= 0) {
+            throw new IllegalArgumentException("Compression dictionary ids must be positive");
+        }
+        if (bytes.length == 0 || bytes.length > MAX_SIZE) {
+            throw new IllegalArgumentException("Compression dictionaries must have 1 to " + MAX_SIZE + " bytes");
+        }
+        return new CompressionDictionary(id, bytes.clone());
+    }
+
+    /**
+     * Builds a dictionary from the segments of the samples sharing the most content with other samples
+     * Samples should be uncompressed payloads representative of what gets compressed later, as written by a serializer
+     * with the same options except compression, around a hundred times as many bytes as the dictionary gets are plenty
+     *
+     * @param maxSize upper bound of the dictionary size, the dictionary is smaller if the samples share less content
+     * @throws IllegalArgumentException if the samples share no content at all
+     */
+    public static CompressionDictionary train(int id, Collection<byte[]> samples, int maxSize) {
+        if (maxSize <= 0 || maxSize > MAX_SIZE) {
+            throw new IllegalArgumentException("maxSize must be between 1 and " + MAX_SIZE);
+        }
+
+        // In how many samples each sequence occurs, occurring in a single one doesn't help other payloads
+        Map<Long, Integer> frequencies = new HashMap<>();
+        Set<Long> seen = new HashSet<>();
+        for (byte[] sample : samples) {
+            seen.clear();
+            for (int i = 0; i + KMER_LENGTH <= sample.length; i++) {
+                long kmer = kmer(sample, i);
+                if (seen.add(kmer)) {
+                    frequencies.merge(kmer, 1, Integer::sum);
+                }
+            }
+        }
+
+        // Segments overlap by half, so content isn't missed for straddling a segment boundary
+        PriorityQueue<Segment> queue = new PriorityQueue<>(Comparator.comparingLong((Segment segment) -> segment.score).reversed());
+        for (byte[] sample : samples) {
+            for (int start = 0; start + KMER_LENGTH <= sample.length; start += SEGMENT_LENGTH / 2) {
+                Segment segment = new Segment(sample, start, Math.min(sample.length, start + SEGMENT_LENGTH));
+                segment.score = score(segment, frequencies);
+                if (segment.score > 0) {
+                    queue.add(segment);
+                }
+            }
+        }
+
+        // Greedy: picking a segment makes its sequences worthless for the others, so scores only ever drop
+        // and a segment whose recomputed score is still the best is the best choice
+        List<Segment> picked = new ArrayList<>();
+        int size = 0;
+        while (size < maxSize && !queue.isEmpty()) {
+            Segment segment = queue.poll();
+            long score = score(segment, frequencies);
+            if (score <= 0) continue;
+            if (score < segment.score) {
+                segment.score = score;
+                queue.add(segment);
+                continue;
+            }
+
+            segment.end = Math.min(segment.end, segment.start + maxSize - size);
+            size += segment.end - segment.start;
+            picked.add(segment);
+            for (int i = segment.start; i + KMER_LENGTH <= segment.end; i++) {
+                frequencies.put(kmer(segment.sample, i), 0);
+            }
+        }
+
+        if (size == 0) {
+            throw new IllegalArgumentException("The samples share no content");
+        }
+
+        // Best segments last, where references are shortest
+        byte[] bytes = new byte[size];
+        int position = size;
+        for (Segment segment : picked) {
+            int length = segment.end - segment.start;
+            position -= length;
+            System.arraycopy(segment.sample, segment.start, bytes, position, length);
+        }
+        return of(id, bytes);
+    }
+
+    private static long score(Segment segment, Map<Long, Integer> frequencies) {
+        long score = 0;
+        for (int i = segment.start; i + KMER_LENGTH <= segment.end; i++) {
+            int frequency = frequencies.getOrDefault(kmer(segment.sample, i), 0);
+            if (frequency > 1) {
+                score += frequency;
+            }
+        }
+        return score;
+    }
+
+    private static long kmer(byte[] bytes, int offset) {
+        long kmer = 0;
+        for (int i = 0; i < KMER_LENGTH; i++) {
+            kmer = kmer << 8 | bytes[offset + i] & 0xFF;
+        }
+        return kmer;
+    }
+
+    private static final class Segment {
+        private final byte[] sample;
+        private final int start;
+        private int end;
+        private long score;
+
+        private Segment(byte[] sample, int start, int end) {
+            this.sample = sample;
+            this.start = start;
+            this.end = end;
+        }
+    }
+
+    public int id() {
+        return this.id;
+    }
+
+    public int size() {
+        return this.bytes.length;
+    }
+
+    /**
+     * @return a copy of the dictionary, for storing a trained one
+     */
+    public byte[] bytes() {
+        return this.bytes.clone();
+    }
+
+    byte[] array() {
+        return this.bytes;
+    }
+
+}
@@ -0,0 +1,44 @@
+package net.gauntletmc.adventure.serializer.binary;
+
+/**
+ * Discards everything written to it and only keeps track of how many bytes that would have been
+ */
+/*package-private*/ final class CountingBinaryOutput implements BinaryOutput {
+
+    private int count = 0;
+
+    int count() {
+        return this.count;
+    }
+
+    @Override
+    public void writeByte(int value) {
+        this.count += 1;
+    }
+
+    @Override
+    public void writeShort(int value) {
+        this.count += 2;
+    }
+
+    @Override
+    public void writeInt(int value) {
+        this.count += 4;
+    }
+
+    @Override
+    public void writeLong(long value) {
+        this.count += 8;
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) {
+        this.count += length;
+    }
+
+    @Override
+    public void writeUtf8(String value, int utf8Length) {
+        this.count += utf8Length;
+    }
+
+}
@@ -0,0 +1,62 @@
+package net.gauntletmc.adventure.serializer.binary;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/*package-private*/ final class DataBinaryInput implements BinaryInput {
+
+    private static final int MAX_SCRATCH_LENGTH = 8192;
+
+    private final DataInputStream input;
+
+    private byte @Nullable [] scratch;
+
+    DataBinaryInput(DataInputStream input) {
+        this.input = input;
+    }
+
+    @Override
+    public byte readByte() throws IOException {
+        return this.input.readByte();
+    }
+
+    @Override
+    public int readInt() throws IOException {
+        return this.input.readInt();
+    }
+
+    @Override
+    public long readLong() throws IOException {
+        return this.input.readLong();
+    }
+
+    @Override
+    public String readUtf8(int length, @Nullable InternCache cache) throws IOException {
+        byte[] bytes;
+        if (length <= MAX_SCRATCH_LENGTH) {
+            if (this.scratch == null || this.scratch.length < length) {
+                this.scratch = new byte[Math.max(length, 64)];
+            }
+            bytes = this.scratch;
+            this.input.readFully(bytes, 0, length);
+        } else {
+            // readNBytes grows its buffer as data arrives instead of trusting the length up front
+            bytes = this.input.readNBytes(length);
+            if (bytes.length != length) {
+                throw new EOFException();
+            }
+        }
+
+        return cache != null ? cache.string(bytes, 0, length) : new String(bytes, 0, length, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void readFully(byte[] bytes, int offset, int length) throws IOException {
+        this.input.readFully(bytes, offset, length);
+    }
+
+}
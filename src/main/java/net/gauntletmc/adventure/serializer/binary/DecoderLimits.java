@@ -0,0 +1,93 @@
+package net.gauntletmc.adventure.serializer.binary;
+
+/**
+ * Bounds on what decoding a single payload may consume, so untrusted input can't force large allocations or deep nesting
+ * Checked while decoding, exceeding one fails with an {@link IllegalStateException}
+ * See {@link BinaryComponentSerializer.Builder#decoderLimits(DecoderLimits)}
+ *
+ * @param maxBytes size of a payload, of the whole frame for {@link BinaryComponentSerializer#deserializeAll(java.nio.ByteBuffer)}
+ * @param maxStringLength encoded size of a single string in bytes
+ * @param maxNodes components a single decoded component may consist of, itself included
+ * @param maxChildren children of a single component, also arguments of a single translatable component
+ * @param maxDepth nesting of components (children, translatable arguments, separators, hover texts), the root being at depth 1
+ */
+public record DecoderLimits(long maxBytes, int maxStringLength, int maxNodes, int maxChildren, int maxDepth) {
+
+    public static final DecoderLimits UNLIMITED = new DecoderLimits(Long.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE);
+
+    public DecoderLimits {
+        if (maxBytes <= 0 || maxStringLength < 0 || maxNodes <= 0 || maxChildren < 0 || maxDepth <= 0) {
+            throw new IllegalArgumentException("Limits must be positive");
+        }
+    }
+
+    public DecoderLimits withMaxBytes(long maxBytes) {
+        return new DecoderLimits(maxBytes, this.maxStringLength, this.maxNodes, this.maxChildren, this.maxDepth);
+    }
+
+    public DecoderLimits withMaxStringLength(int maxStringLength) {
+        return new DecoderLimits(this.maxBytes, maxStringLength, this.maxNodes, this.maxChildren, this.maxDepth);
+    }
+
+    public DecoderLimits withMaxNodes(int maxNodes) {
+        return new DecoderLimits(this.maxBytes, this.maxStringLength, maxNodes, this.maxChildren, this.maxDepth);
+    }
+
+    public DecoderLimits withMaxChildren(int maxChildren) {
+        return new DecoderLimits(this.maxBytes, this.maxStringLength, this.maxNodes, maxChildren, this.maxDepth);
+    }
+
+    public DecoderLimits withMaxDepth(int maxDepth) {
+        return new DecoderLimits(this.maxBytes, this.maxStringLength, this.maxNodes, this.maxChildren, maxDepth);
+    }
+
+    // region [Checks]
+
+    boolean bytesLimited() {
+        return this.maxBytes != Long.MAX_VALUE;
+    }
+
+    void checkBytes(long bytes) {
+        if (bytes > this.maxBytes) {
+            throw new IllegalStateException("Payload larger than " + this.maxBytes + " bytes! Can't deserialize");
+        }
+    }
+
+    /**
+     * @return the length, as read from the payload
+     */
+    int checkStringLength(int length) {
+        if (length < 0) {
+            throw new IllegalArgumentException("Invalid string length " + length);
+        }
+        if (length > this.maxStringLength) {
+            throw new IllegalStateException("String longer than " + this.maxStringLength + " bytes! Can't deserialize");
+        }
+        return length;
+    }
+
+    void checkNodes(int nodes) {
+        if (nodes > this.maxNodes) {
+            throw new IllegalStateException("More than " + this.maxNodes + " components! Can't deserialize");
+        }
+    }
+
+    /**
+     * @return the count, as read from the payload
+     */
+    int checkChildren(int count) {
+        if (count > this.maxChildren) {
+            throw new IllegalStateException("More than " + this.maxChildren + " children! Can't deserialize");
+        }
+        return count;
+    }
+
+    void checkDepth(int depth) {
+        if (depth > this.maxDepth) {
+            throw new IllegalStateException("Components nested deeper than " + this.maxDepth + "! Can't deserialize");
+        }
+    }
+
+    // endregion [Checks]
+
+}
@@ -0,0 +1,35 @@
+package net.gauntletmc.adventure.serializer.binary;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.Style;
+import net.kyori.adventure.text.format.TextColor;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Everything the decoder remembers over the course of a single payload
+ */
+/*package-private*/ final class DecoderState {
+
+    final int flags;
+    final @Nullable StringDictionary dictionary;
+    final boolean styleDelta;
+
+    final List<String> strings;
+    final List<Style> styles;
+    final List<Component> components;
+    final List<TextColor> colors;
+
+    DecoderState(int flags, @Nullable StringDictionary dictionary) {
+        this.flags = flags;
+        this.dictionary = dictionary;
+        this.styleDelta = (flags & BinaryComponentSerializerImpl.FLAG_STYLE_DELTA) != 0;
+        this.strings = (flags & BinaryComponentSerializerImpl.FLAG_STRING_TABLE) != 0 ? new ArrayList<>() : null;
+        this.styles = (flags & BinaryComponentSerializerImpl.FLAG_STYLE_TABLE) != 0 ? new ArrayList<>() : null;
+        this.components = (flags & BinaryComponentSerializerImpl.FLAG_SUBTREE_TABLE) != 0 ? new ArrayList<>() : null;
+        this.colors = (flags & BinaryComponentSerializerImpl.FLAG_COLOR_PALETTE) != 0 ? new ArrayList<>() : null;
+    }
+
+}
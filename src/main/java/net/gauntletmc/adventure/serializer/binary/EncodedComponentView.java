@@ -0,0 +1,157 @@
+package net.gauntletmc.adventure.serializer.binary;
+
+import net.kyori.adventure.text.*;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import static net.gauntletmc.adventure.serializer.binary.BinaryComponentSerializerImpl.*;
+
+/**
+ * Reads parts of an encoded component in place, without decoding the rest of it
+ * Created through {@link BinaryComponentSerializer#view(ByteBuffer)}, children are reached through {@link #child(int)}
+ *
+ * Reaching a child skips its earlier siblings without decoding them, {@link #index()} instead records the offsets of
+ * every component in one pass so any child is found directly afterwards
+ * Payloads using string, style or subtree tables are walked once in full before anything past a content is read,
+ * as arguments, separators and children may refer back to anything before them
+ *
+ * The buffer must not be modified while views of it are in use, views are not thread-safe
+ */
+public final class EncodedComponentView {
+
+    /**
+     * State shared by all views of one payload
+     */
+    private static final class Payload {
+        private final PayloadReader reader;
+        private final int root;
+        private boolean tablesFilled;
+        private @Nullable ComponentIndex index;
+
+        private Payload(BinaryComponentSerializerImpl serializer, ByteBuffer buffer) throws IOException {
+            this.reader = new PayloadReader(serializer, buffer);
+            this.tablesFilled = !this.reader.beginView();
+            this.root = this.reader.position();
+        }
+
+        private void fillTables() throws IOException {
+            if (!this.tablesFilled) {
+                this.reader.scan(this.root, true, null);
+                this.tablesFilled = true;
+            }
+        }
+
+        private void index() throws IOException {
+            if (this.index == null) {
+                ComponentIndex index = new ComponentIndex();
+                this.reader.scan(this.root, !this.tablesFilled, index);
+                this.tablesFilled = true;
+                this.index = index;
+            }
+        }
+    }
+
+    private final Payload payload;
+    private final int offset;
+
+    // Read on first use
+    private int data;
+    private boolean dataRead = false;
+
+    // The last child reached, so reaching the children in order doesn't skip the earlier ones again
+    private int cursor = 0;
+    private int cursorOffset = -1;
+
+    private EncodedComponentView(Payload payload, int offset) {
+        this.payload = payload;
+        this.offset = offset;
+    }
+
+    /*package-private*/ static EncodedComponentView root(BinaryComponentSerializerImpl serializer, ByteBuffer buffer) throws IOException {
+        Payload payload = new Payload(serializer, buffer);
+        return new EncodedComponentView(payload, payload.root);
+    }
+
+    /**
+     * @return the component interface, for example {@link TextComponent}, or the type of the {@link ComponentCodec} it was written by
+     */
+    public Class<? extends Component> type() throws IOException {
+        return switch (this.payload.reader.type(this.offset)) {
+            case COMPONENT_TEXT -> TextComponent.class;
+            case COMPONENT_TRANSLATABLE -> TranslatableComponent.class;
+            case COMPONENT_SCORE -> ScoreComponent.class;
+            case COMPONENT_SELECTOR -> SelectorComponent.class;
+            case COMPONENT_KEYBIND -> KeybindComponent.class;
+            case COMPONENT_BLOCK_NBT -> BlockNBTComponent.class;
+            case COMPONENT_ENTITY_NBT -> EntityNBTComponent.class;
+            case COMPONENT_STORAGE_NBT -> StorageNBTComponent.class;
+            case COMPONENT_CUSTOM -> this.payload.reader.codec(this.offset).type();
+            default -> throw notSureHowToDeserialize();
+        };
+    }
+
+    /**
+     * @return the text content, translation key, score name, selector pattern, keybind or NBT path, depending on the type
+     * @throws IllegalStateException for components written by a {@link ComponentCodec}
+     */
+    public String content() throws IOException {
+        return this.payload.reader.content(this.offset);
+    }
+
+    public boolean hasStyle() throws IOException {
+        return (this.data() & 1) != 0;
+    }
+
+    public int childCount() throws IOException {
+        return Math.max(this.data() >> 1, 0);
+    }
+
+    public EncodedComponentView child(int index) throws IOException {
+        if (index < 0 || index >= this.childCount()) {
+            throw new IndexOutOfBoundsException("Child " + index + " out of bounds for " + this.childCount() + " children");
+        }
+
+        Payload payload = this.payload;
+        payload.fillTables();
+
+        if (payload.index != null) {
+            int node = payload.index.find(this.offset);
+            if (node >= 0) {
+                return new EncodedComponentView(payload, payload.index.childOffset(node, index));
+            }
+        }
+
+        if (this.cursorOffset < 0 || index < this.cursor) {
+            this.cursorOffset = payload.reader.children(this.offset);
+            this.cursor = 0;
+        }
+        while (this.cursor < index) {
+            this.cursorOffset = payload.reader.skipComponent(this.cursorOffset);
+            this.cursor++;
+        }
+        return new EncodedComponentView(payload, payload.reader.resolve(this.cursorOffset));
+    }
+
+    /**
+     * Records the offsets of all components of the payload in one pass, if not done yet
+     *
+     * @return this view
+     */
+    public EncodedComponentView index() throws IOException {
+        this.payload.index();
+        return this;
+    }
+
+    private int data() throws IOException {
+        if (!this.dataRead) {
+            // Everything the component has before its data may repeat a string or style of an earlier part
+            this.payload.fillTables();
+            this.data = this.payload.reader.data(this.offset);
+            this.dataRead = true;
+        }
+        return this.data;
+    }
+
+}
@@ -0,0 +1,33 @@
+package net.gauntletmc.adventure.serializer.binary;
+
+import net.kyori.adventure.text.format.Style;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Everything the encoder remembers over the course of a single payload
+ */
+/*package-private*/ final class EncoderState {
+
+    final int flags;
+    final @Nullable StringDictionary dictionary;
+    final boolean styleDelta;
+
+    final Map<String, Integer> strings;
+    final Map<Style, Integer> styles;
+    final @Nullable SubtreeTable components;
+    final Map<Integer, Integer> colors;
+
+    EncoderState(int flags, @Nullable StringDictionary dictionary, ComponentCodecs codecs) {
+        this.flags = flags;
+        this.dictionary = dictionary;
+        this.styleDelta = (flags & BinaryComponentSerializerImpl.FLAG_STYLE_DELTA) != 0;
+        this.strings = (flags & BinaryComponentSerializerImpl.FLAG_STRING_TABLE) != 0 ? new HashMap<>() : null;
+        this.styles = (flags & BinaryComponentSerializerImpl.FLAG_STYLE_TABLE) != 0 ? new HashMap<>() : null;
+        this.components = (flags & BinaryComponentSerializerImpl.FLAG_SUBTREE_TABLE) != 0 ? new SubtreeTable(codecs) : null;
+        this.colors = (flags & BinaryComponentSerializerImpl.FLAG_COLOR_PALETTE) != 0 ? new HashMap<>() : null;
+    }
+
+}
@@ -0,0 +1,69 @@
+package net.gauntletmc.adventure.serializer.binary;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Reuses expensive instances the way {@link ScratchBuffer} reuses its buffers
+ * Platform threads keep one instance in a thread local, virtual threads share a small lock-free pool
+ */
+/*package-private*/ final class InstancePool<T> {
+
+    private final Supplier<T> factory;
+    // Called for instances that don't fit back into the pool
+    private final Consumer<T> discard;
+
+    // Empty while the thread's instance is acquired
+    private final ThreadLocal<T> local = new ThreadLocal<>();
+    private final AtomicReferenceArray<T> shared =
+            new AtomicReferenceArray<>(Math.max(4, Runtime.getRuntime().availableProcessors()));
+
+    InstancePool(Supplier<T> factory, Consumer<T> discard) {
+        this.factory = factory;
+        this.discard = discard;
+    }
+
+    T acquire() {
+        Thread thread = Thread.currentThread();
+
+        if (!ScratchBuffer.isVirtual(thread)) {
+            T local = this.local.get();
+            if (local != null) {
+                this.local.set(null);
+                return local;
+            }
+            return this.factory.get();
+        }
+
+        int slots = this.shared.length();
+        int start = (int) (thread.getId() % slots);
+        for (int i = 0; i < slots; i++) {
+            T pooled = this.shared.getAndSet((start + i) % slots, null);
+            if (pooled != null) {
+                return pooled;
+            }
+        }
+        return this.factory.get();
+    }
+
+    void release(T instance) {
+        if (!ScratchBuffer.isVirtual(Thread.currentThread())) {
+            if (this.local.get() == null) {
+                this.local.set(instance);
+            } else {
+                this.discard.accept(instance);
+            }
+            return;
+        }
+
+        int slots = this.shared.length();
+        for (int i = 0; i < slots; i++) {
+            if (this.shared.compareAndSet(i, null, instance)) {
+                return;
+            }
+        }
+        this.discard.accept(instance);
+    }
+
+}
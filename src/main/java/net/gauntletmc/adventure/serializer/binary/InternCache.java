@@ -0,0 +1,85 @@
+package net.gauntletmc.adventure.serializer.binary;
+
+import net.kyori.adventure.key.Key;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Bounded cache sharing decoded instances of short, highly repetitive strings and keys
+ * (namespaces, fonts, entity types, translation keys) between every component decoded with it
+ *
+ * Both tables are direct-mapped and lock-free: a colliding entry simply replaces the previous one
+ * Entries only hold final fields so racy publication between threads is safe
+ */
+/*package-private*/ final class InternCache {
+
+    static final int MAX_STRING_LENGTH = 64;
+    // The capacity is the next power of two, which has to fit an int
+    static final int MAX_ENTRIES = 1 << 30;
+
+    private final StringEntry[] strings;
+    private final Key[] keys;
+    private final int mask;
+
+    InternCache(int maxEntries) {
+        int capacity = Integer.highestOneBit(Math.max(1, maxEntries - 1)) << 1;
+        this.strings = new StringEntry[capacity];
+        this.keys = new Key[capacity];
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * Decodes the UTF-8 bytes, returning the previously decoded instance if the same bytes were seen before
+     */
+    String string(byte[] bytes, int offset, int length) {
+        if (length > MAX_STRING_LENGTH) {
+            return new String(bytes, offset, length, StandardCharsets.UTF_8);
+        }
+
+        int hash = 1;
+        for (int i = offset; i < offset + length; i++) {
+            hash = 31 * hash + bytes[i];
+        }
+
+        int slot = mix(hash) & this.mask;
+        StringEntry entry = this.strings[slot];
+        if (entry != null && entry.hash == hash && Arrays.equals(entry.bytes, 0, entry.bytes.length, bytes, offset, offset + length)) {
+            return entry.value;
+        }
+
+        String value = new String(bytes, offset, length, StandardCharsets.UTF_8);
+        this.strings[slot] = new StringEntry(hash, Arrays.copyOfRange(bytes, offset, offset + length), value);
+        return value;
+    }
+
+    Key key(String namespace, String value) {
+        int slot = mix(31 * namespace.hashCode() + value.hashCode()) & this.mask;
+
+        Key key = this.keys[slot];
+        if (key != null && key.namespace().equals(namespace) && key.value().equals(value)) {
+            return key;
+        }
+
+        key = Key.key(namespace, value);
+        this.keys[slot] = key;
+        return key;
+    }
+
+    private static int mix(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    private static final class StringEntry {
+        private final int hash;
+        private final byte[] bytes;
+        private final String value;
+
+        private StringEntry(int hash, byte[] bytes, String value) {
+            this.hash = hash;
+            this.bytes = bytes;
+            this.value = value;
+        }
+    }
+
+}
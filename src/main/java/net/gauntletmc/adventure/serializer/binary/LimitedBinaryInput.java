@@ -0,0 +1,56 @@
+package net.gauntletmc.adventure.serializer.binary;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+
+/**
+ * Counts what is read from another input, failing once more than {@link DecoderLimits#maxBytes()} was read
+ */
+/*package-private*/ final class LimitedBinaryInput implements BinaryInput {
+
+    private final BinaryInput input;
+    private final DecoderLimits limits;
+    private long read = 0;
+
+    LimitedBinaryInput(BinaryInput input, DecoderLimits limits) {
+        this.input = input;
+        this.limits = limits;
+    }
+
+    private void take(int length) {
+        this.read += length;
+        this.limits.checkBytes(this.read);
+    }
+
+    @Override
+    public byte readByte() throws IOException {
+        this.take(1);
+        return this.input.readByte();
+    }
+
+    @Override
+    public int readInt() throws IOException {
+        this.take(4);
+        return this.input.readInt();
+    }
+
+    @Override
+    public long readLong() throws IOException {
+        this.take(8);
+        return this.input.readLong();
+    }
+
+    @Override
+    public String readUtf8(int length, @Nullable InternCache cache) throws IOException {
+        this.take(length);
+        return this.input.readUtf8(length, cache);
+    }
+
+    @Override
+    public void readFully(byte[] bytes, int offset, int length) throws IOException {
+        this.take(length);
+        this.input.readFully(bytes, offset, length);
+    }
+
+}
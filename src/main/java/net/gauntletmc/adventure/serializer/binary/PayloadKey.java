@@ -0,0 +1,65 @@
+package net.gauntletmc.adventure.serializer.binary;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * Cache key for an encoded payload, hashed eight bytes at a time and compared by content
+ */
+/*package-private*/ final class PayloadKey {
+
+    private static final VarHandle LONG = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final long MULTIPLIER = 0x9E3779B97F4A7C15L;
+
+    private final byte[] bytes;
+    private final int hash;
+
+    PayloadKey(byte[] bytes) {
+        this.bytes = bytes;
+        this.hash = hash(bytes);
+    }
+
+    /**
+     * @return a key owning a private copy of the bytes, safe to keep after the caller reuses its array
+     */
+    PayloadKey copy() {
+        return new PayloadKey(this.bytes.clone(), this.hash);
+    }
+
+    private PayloadKey(byte[] bytes, int hash) {
+        this.bytes = bytes;
+        this.hash = hash;
+    }
+
+    int length() {
+        return this.bytes.length;
+    }
+
+    static int hash(byte[] bytes) {
+        long hash = bytes.length * MULTIPLIER;
+
+        int i = 0;
+        for (; i + 8 <= bytes.length; i += 8) {
+            hash = Long.rotateLeft(hash ^ (long) LONG.get(bytes, i), 31) * MULTIPLIER;
+        }
+        for (; i < bytes.length; i++) {
+            hash = Long.rotateLeft(hash ^ (bytes[i] & 0xFF), 31) * MULTIPLIER;
+        }
+
+        hash ^= hash >>> 32;
+        return (int) hash;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof PayloadKey key && key.hash == this.hash && Arrays.equals(key.bytes, this.bytes);
+    }
+
+    @Override
+    public int hashCode() {
+        return this.hash;
+    }
+
+}
@@ -0,0 +1,1114 @@
+package net.gauntletmc.adventure.serializer.binary;
+
+import net.kyori.adventure.key.Key;
+import net.kyori.adventure.text.BlockNBTComponent;
+import net.kyori.adventure.text.event.ClickEvent;
+import net.kyori.adventure.text.format.TextDecoration;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.UUID;
+
+import static net.gauntletmc.adventure.serializer.binary.BinaryComponentSerializerImpl.*;
+
+/**
+ * Walks an encoded payload in place, reporting it to a {@link ComponentVisitor} without building anything
+ *
+ * The string, style and subtree tables only remember offsets into the buffer, a string is decoded once
+ * a callback needs it and a back-referenced style or subtree is walked again from where it was first written
+ *
+ * Nesting is kept on an explicit stack of frames like {@link ResumableDecoder} does, so any depth within the limits
+ * is walked without recursion
+ *
+ * Nested back-references would expand exponentially when walked again every time, unlike decoding which reuses the
+ * built instance, so the components walked again in one walk are limited to {@link #REPLAYED_NODES_PER_BYTE} per byte
+ * of the buffer
+ *
+ * Style deltas are resolved while visiting only, into {@link StyleParts} remembering where every part of a style
+ * was written, so the parts a child shares with its parent can be reported again
+ */
+/*package-private*/ final class PayloadReader implements BinaryInput {
+
+    static final int REPLAYED_NODES_PER_BYTE = 64;
+
+    private static final TextDecoration.State[] STATES = TextDecoration.State.values();
+    private static final ClickEvent.Action[] CLICK_ACTIONS = ClickEvent.Action.values();
+
+    private final BinaryComponentSerializerImpl serializer;
+    private final DecoderLimits limits;
+    private final ByteBuffer buffer;
+    private final boolean bigEndian;
+    private final int start;
+    // The end of the buffer or of the largest allowed payload, whichever comes first
+    private final int limit;
+    private int position;
+
+    private ComponentVisitor visitor;
+    private @Nullable StringDictionary dictionary;
+
+    // Offset and length of every tabled string, offset of every tabled style and subtree, null if not in use
+    private int @Nullable [] strings;
+    private int stringCount;
+    private int @Nullable [] styles;
+    private int styleCount;
+    private int @Nullable [] components;
+    private int componentCount;
+    // Rgb value of every color in the palette, null if not in use
+    private int @Nullable [] colors;
+    private int colorCount;
+
+    // While walking a back-referenced part again nothing is added to the tables, it already was the first time
+    private int replaying = 0;
+    // How deep in back-referenced parts a walk started, views start in one, and the components it walked again
+    private int replayBase;
+    private long replayed;
+    private final long replayBudget;
+
+    // Whether styles are deltas, and whether they are resolved, with the parts of every tabled style and the style
+    // every tabled subtree was first walked with
+    private boolean styleDelta;
+    private boolean resolving;
+    private StyleParts @Nullable [] styleParts;
+    private StyleParts @Nullable [] componentReferences;
+
+    private byte @Nullable [] scratch;
+    private @Nullable CodecInput codecInput;
+
+    // Records every walked component while set
+    private @Nullable ComponentIndex index;
+    // Receives the plain text while extracting it
+    private StringBuilder plainText;
+
+    // Frames on the stack and components walked so far, for the serializer's limits
+    private int depth = 0;
+    private int nodes = 0;
+
+    PayloadReader(BinaryComponentSerializerImpl serializer, ByteBuffer buffer) {
+        this.serializer = serializer;
+        this.limits = serializer.limits;
+        this.buffer = buffer;
+        this.bigEndian = buffer.order() == ByteOrder.BIG_ENDIAN;
+        this.start = buffer.position();
+        this.limit = buffer.limit() - this.start > this.limits.maxBytes() ? this.start + (int) this.limits.maxBytes() : buffer.limit();
+        this.position = this.start;
+        this.replayBudget = (long) REPLAYED_NODES_PER_BYTE * (this.limit - this.start);
+    }
+
+    int position() {
+        return this.position;
+    }
+
+    /**
+     * Walks one payload starting at the current position
+     */
+    void visit(ComponentVisitor visitor) throws IOException {
+        this.visitor = visitor;
+        this.header();
+
+        if (this.styleDelta) {
+            this.resolving = true;
+            this.styleParts = this.styles != null ? new StyleParts[8] : null;
+            this.componentReferences = this.components != null ? new StyleParts[8] : null;
+        }
+        this.walk(ComponentVisitor.Position.ROOT, true, false, -1);
+    }
+
+    /**
+     * Skips one payload starting at the current position, checking its structure without decoding anything
+     */
+    void skipPayload() throws IOException {
+        this.header();
+        this.walk(ComponentVisitor.Position.ROOT, false, false, -1);
+    }
+
+    /**
+     * Appends the plain text of one payload starting at the current position, like adventure's plain text serializer
+     * does: text content, keybinds, translation keys and selector patterns of the component and its children
+     */
+    void appendPlainText(StringBuilder builder) throws IOException {
+        this.header();
+        this.plainText = builder;
+        try {
+            this.walk(ComponentVisitor.Position.ROOT, false, true, -1);
+        } finally {
+            this.plainText = null;
+        }
+    }
+
+    private void header() throws IOException {
+        DecoderState decoder = this.serializer.deserializeHeader(this);
+
+        this.dictionary = decoder.dictionary;
+        this.styleDelta = decoder.styleDelta;
+        this.resolving = false;
+        this.strings = decoder.strings != null ? new int[16] : null;
+        this.styles = decoder.styles != null ? new int[8] : null;
+        this.components = decoder.components != null ? new int[8] : null;
+        this.colors = decoder.colors != null ? new int[8] : null;
+        this.stringCount = 0;
+        this.styleCount = 0;
+        this.componentCount = 0;
+        this.colorCount = 0;
+    }
+
+    // region [View]
+
+    /**
+     * Reads the header for walking parts of the payload out of order, as {@link EncodedComponentView} does
+     * The tables stay empty until {@link #scan(int, ComponentIndex)} walked the whole payload, so nothing is added twice
+     *
+     * @return whether the payload uses any of the tables, so they need to be filled before reading past the root's content
+     */
+    boolean beginView() throws IOException {
+        this.header();
+        this.replaying = 1;
+        return this.strings != null || this.styles != null || this.components != null || this.colors != null;
+    }
+
+    /**
+     * Walks the whole payload once, filling the tables the first time and recording every component if an index is given
+     */
+    void scan(int root, boolean fillTables, @Nullable ComponentIndex index) throws IOException {
+        this.position = root;
+        this.replaying = fillTables ? 0 : 1;
+        this.index = index;
+        try {
+            this.walk(ComponentVisitor.Position.ROOT, false, false, -1);
+        } finally {
+            this.replaying = 1;
+            this.index = null;
+        }
+    }
+
+    /**
+     * @return the offset of the component at the offset, or the referenced one if it is a subtree reference
+     */
+    int resolve(int offset) throws IOException {
+        this.position = offset;
+        if (this.readByte() == COMPONENT_REFERENCE && this.components != null) {
+            int index = deserializeVarInt(this);
+            if (index >= this.componentCount) {
+                throw new IllegalArgumentException("Invalid component reference " + index);
+            }
+            return this.components[index];
+        }
+        return offset;
+    }
+
+    byte type(int offset) throws IOException {
+        this.position = offset;
+        return this.readByte();
+    }
+
+    /**
+     * @return the first string of the component, which every component type starts with
+     */
+    String content(int offset) throws IOException {
+        this.position = offset;
+        if (this.readByte() == COMPONENT_CUSTOM) {
+            throw new IllegalStateException("Components written by a codec have no content string");
+        }
+        return this.string(true);
+    }
+
+    /**
+     * @return the codec of the component at the offset, which has to be written by one
+     */
+    ComponentCodec<?> codec(int offset) throws IOException {
+        this.position = offset + 1;
+        return this.serializer.codecs.codec(deserializeVarInt(this));
+    }
+
+    /**
+     * @return the varint holding the style flag and child count, leaving the position at the style
+     */
+    int data(int offset) throws IOException {
+        this.position = offset;
+        this.walk(ComponentVisitor.Position.CHILD, false, false, DATA);
+        return deserializeVarInt(this);
+    }
+
+    /**
+     * @return the offset of the first child
+     */
+    int children(int offset) throws IOException {
+        this.position = offset;
+        this.walk(ComponentVisitor.Position.CHILD, false, false, CHILDREN);
+        return this.position;
+    }
+
+    /**
+     * @return the offset right after the component at the offset
+     */
+    int skipComponent(int offset) throws IOException {
+        this.position = offset;
+        this.walk(ComponentVisitor.Position.CHILD, false, false, -1);
+        return this.position;
+    }
+
+    // endregion [View]
+
+    // region [Walk]
+
+    private static final int TYPE = 0;
+    private static final int ARGS = 1;
+    private static final int NBT_TAIL = 2;
+    private static final int DATA = 3;
+    private static final int STYLE = 4;
+    private static final int CHILDREN = 5;
+
+    private static final class Frame {
+        private int step;
+        // The step the walk ends at for the outermost component, -1 to walk all of it
+        private int stop;
+        private ComponentVisitor.Position where;
+        private boolean visit;
+        private boolean enter;
+        // Appends the plain text of the component and its children instead of visiting them
+        private boolean plain;
+        private byte type;
+        private int start;
+        // Where to continue after walking a back-referenced subtree again, -1 if it isn't one
+        private int resume;
+        // Translatable arguments left, then the children and how many were walked
+        private int remaining;
+        private int children;
+        private int child;
+        // The component's and its first child slot in the index, -1 if there is none
+        private int node;
+        private int slot;
+        // With style deltas resolved, the style inherited from the parent, the component's own and the one its children inherit
+        private @Nullable StyleParts reference;
+        private @Nullable StyleParts style;
+        private @Nullable StyleParts effective;
+        private boolean styleEntered;
+        // Offset of a style added to the table once walked, and where to continue after walking a style or hover event again
+        private int styleStart;
+        private int styleResume;
+    }
+
+    private Frame[] frames = new Frame[8];
+
+    /**
+     * Walks the component at the current position and everything nested in it
+     *
+     * @param stop the step to stop at in the component itself, -1 to walk all of it
+     * @return the offset of the component, or of the referenced one for a subtree reference
+     */
+    private int walk(ComponentVisitor.Position where, boolean visit, boolean plain, int stop) throws IOException {
+        int replaying = this.replaying;
+        this.replayBase = replaying;
+        this.replayed = 0;
+        this.depth = 0;
+        this.nodes = 0;
+        this.push(where, visit, plain, this.resolving ? StyleParts.EMPTY : null);
+        this.frames[0].stop = stop;
+
+        try {
+            int result = -1;
+            while (true) {
+                Frame frame = this.frames[this.depth - 1];
+                if (!this.resume(frame, result)) {
+                    result = -1;
+                    continue;
+                }
+
+                result = frame.start;
+                frame.reference = null;
+                frame.style = null;
+                frame.effective = null;
+                if (--this.depth == 0) {
+                    return result;
+                }
+            }
+        } finally {
+            // An aborted walk leaves the back-referenced parts it was in unfinished
+            this.replaying = replaying;
+            this.depth = 0;
+        }
+    }
+
+    /**
+     * Replayed subtrees count again, they are walked again after all
+     *
+     * @param reference the style inherited while resolving style deltas, null otherwise
+     */
+    private void push(ComponentVisitor.Position where, boolean visit, boolean plain, @Nullable StyleParts reference) {
+        this.limits.checkDepth(this.depth + 1);
+        this.limits.checkNodes(++this.nodes);
+        if (this.replaying > this.replayBase && ++this.replayed > this.replayBudget) {
+            throw new IllegalStateException("Back-references expand to more than " + this.replayBudget + " components! Can't read in place");
+        }
+
+        if (this.depth == this.frames.length) {
+            this.frames = Arrays.copyOf(this.frames, this.depth << 1);
+        }
+        Frame frame = this.frames[this.depth];
+        if (frame == null) {
+            frame = this.frames[this.depth] = new Frame();
+        }
+        frame.step = TYPE;
+        frame.stop = -1;
+        frame.where = where;
+        frame.visit = visit;
+        frame.plain = plain;
+        frame.resume = -1;
+        frame.reference = reference;
+        frame.styleEntered = false;
+        frame.styleStart = -1;
+        frame.styleResume = -1;
+        this.depth++;
+    }
+
+    /**
+     * Pushes a component nested in the content or style of another one, only children inherit the style
+     * See BinaryComponentSerializerImpl#effectiveStyle
+     */
+    private void pushNested(ComponentVisitor.Position where, boolean visit) {
+        this.push(where, visit, false, this.resolving ? StyleParts.EMPTY : null);
+    }
+
+    /**
+     * Walks the frame's component up to the next nested component
+     *
+     * @param result the offset of the nested component walked last, -1 if there is none
+     * @return true once the component is complete, false after pushing a nested component
+     */
+    private boolean resume(Frame frame, int result) throws IOException {
+        while (frame.step != frame.stop) {
+            switch (frame.step) {
+                case TYPE -> {
+                    frame.start = this.position;
+                    byte type = this.readByte();
+
+                    if (type == COMPONENT_REFERENCE && this.components != null) {
+                        int index = deserializeVarInt(this);
+                        if (index >= this.componentCount) {
+                            throw new IllegalArgumentException("Invalid component reference " + index);
+                        }
+                        frame.start = this.components[index];
+                        if (!frame.visit && !frame.plain) {
+                            return true;
+                        }
+
+                        // The subtree's style deltas are relative to where it was first written
+                        frame.resume = this.position;
+                        frame.reference = this.resolving ? this.componentReferences[index] : null;
+                        this.position = frame.start;
+                        this.replaying++;
+                        type = this.readByte();
+                    }
+
+                    frame.type = type;
+                    frame.node = this.index != null ? this.index.add(frame.start) : -1;
+                    frame.enter = frame.visit && this.visitor.enterComponent(frame.where);
+                    frame.step = DATA;
+                    if (this.content(frame)) return false;
+                }
+                case ARGS -> {
+                    if (frame.remaining > 0) {
+                        frame.remaining--;
+                        this.pushNested(ComponentVisitor.Position.TRANSLATABLE_ARGUMENT, frame.enter);
+                        return false;
+                    }
+                    frame.step = DATA;
+                }
+                case NBT_TAIL -> {
+                    this.nbtTail(frame);
+                    frame.step = DATA;
+                }
+                case DATA -> {
+                    int data = deserializeVarInt(this);
+                    frame.children = this.limits.checkChildren(data >> 1);
+                    frame.style = null;
+                    frame.step = STYLE;
+                    if ((data & 1) != 0 && this.sharedStyle(frame)) return false;
+                }
+                case STYLE -> {
+                    this.finishStyle(frame);
+
+                    if (frame.enter && frame.children > 0) {
+                        this.visitor.children(frame.children);
+                    }
+                    frame.effective = frame.reference != null && frame.children > 0 ? frame.reference.inherit(frame.style) : null;
+                    frame.slot = frame.node >= 0 ? this.index.children(frame.node, Math.max(frame.children, 0)) : -1;
+                    frame.child = 0;
+                    frame.step = CHILDREN;
+                }
+                case CHILDREN -> {
+                    if (result >= 0 && frame.slot >= 0) {
+                        this.index.child(frame.slot + frame.child - 1, result);
+                    }
+                    if (frame.child < frame.children) {
+                        frame.child++;
+                        this.push(ComponentVisitor.Position.CHILD, frame.enter, frame.plain, frame.effective);
+                        return false;
+                    }
+
+                    this.finish(frame);
+                    return true;
+                }
+                default -> throw new IllegalStateException("Unknown step " + frame.step);
+            }
+            result = -1;
+        }
+        return true;
+    }
+
+    private void finish(Frame frame) {
+        if (frame.enter) {
+            this.visitor.exitComponent();
+        }
+
+        if (frame.resume >= 0) {
+            this.position = frame.resume;
+            this.replaying--;
+        } else if (this.components != null && this.replaying == 0) {
+            if (this.resolving) {
+                this.componentReferences = add(this.componentReferences, this.componentCount, frame.reference);
+            }
+            this.components = add(this.components, this.componentCount++, frame.start);
+        }
+    }
+
+    /**
+     * Walks everything of a component between its type and its first nested component, or its style if there is none
+     *
+     * @return whether a nested component was pushed
+     */
+    private boolean content(Frame frame) throws IOException {
+        ComponentVisitor visitor = this.visitor;
+        boolean enter = frame.enter;
+
+        switch (frame.type) {
+            case COMPONENT_TEXT -> {
+                String content = this.text(frame);
+                if (enter) visitor.text(content);
+            }
+            case COMPONENT_TRANSLATABLE -> {
+                String key = this.text(frame);
+                int argumentCount = Math.max(this.limits.checkChildren(this.readByte()), 0);
+                if (enter) visitor.translatable(key, argumentCount);
+
+                frame.remaining = argumentCount;
+                frame.step = ARGS;
+            }
+            case COMPONENT_SCORE -> {
+                String name = this.string(enter);
+                String objective = this.string(enter);
+                if (enter) visitor.score(name, objective);
+            }
+            case COMPONENT_SELECTOR -> {
+                String pattern = this.text(frame);
+                if (enter) visitor.selector(pattern);
+                return this.separator(frame);
+            }
+            case COMPONENT_KEYBIND -> {
+                String keybind = this.text(frame);
+                if (enter) visitor.keybind(keybind);
+            }
+            case COMPONENT_BLOCK_NBT, COMPONENT_ENTITY_NBT, COMPONENT_STORAGE_NBT -> {
+                String nbtPath = this.string(enter);
+                boolean interpret = this.readBoolean();
+                if (enter) {
+                    switch (frame.type) {
+                        case COMPONENT_BLOCK_NBT -> visitor.blockNbt(nbtPath, interpret);
+                        case COMPONENT_ENTITY_NBT -> visitor.entityNbt(nbtPath, interpret);
+                        default -> visitor.storageNbt(nbtPath, interpret);
+                    }
+                }
+                return this.separator(frame);
+            }
+            case COMPONENT_CUSTOM -> {
+                if (enter) {
+                    if (this.codecInput == null) {
+                        this.codecInput = new CodecInput();
+                    }
+                    visitor.custom(this.serializer.deserializeCustom(this, this.codecInput));
+                } else {
+                    this.skipCustom();
+                }
+            }
+            default -> throw notSureHowToDeserialize();
+        }
+        return false;
+    }
+
+    /**
+     * Reads a string counting as plain text, appending it while extracting the plain text
+     *
+     * @return the string, or null if it wasn't decoded
+     */
+    private String text(Frame frame) throws IOException {
+        if (frame.plain) {
+            this.appendString(this.plainText);
+            return null;
+        }
+        return this.string(frame.enter);
+    }
+
+    /**
+     * @return whether the separator was pushed, the component continues with the fields after it either way
+     */
+    private boolean separator(Frame frame) throws IOException {
+        frame.step = frame.type == COMPONENT_SELECTOR ? DATA : NBT_TAIL;
+        if (this.readBoolean()) {
+            this.pushNested(ComponentVisitor.Position.SEPARATOR, frame.enter);
+            return true;
+        }
+        return false;
+    }
+
+    private void nbtTail(Frame frame) throws IOException {
+        ComponentVisitor visitor = this.visitor;
+        boolean enter = frame.enter;
+
+        switch (frame.type) {
+            case COMPONENT_BLOCK_NBT -> {
+                BlockNBTComponent.Pos pos = this.serializer.deserializeBlockNbtPos(this);
+                if (enter) visitor.blockNbtPos(pos);
+            }
+            case COMPONENT_ENTITY_NBT -> {
+                String selector = this.string(enter);
+                if (enter) visitor.entityNbtSelector(selector);
+            }
+            default -> {
+                Key storage = this.key(enter);
+                if (enter) visitor.storageNbtKey(storage);
+            }
+        }
+    }
+
+    /**
+     * Skips the codec id and content of a component written by a codec, no codec is needed for that
+     */
+    private void skipCustom() throws IOException {
+        deserializeVarInt(this);
+        int length = deserializeVarInt(this);
+        if (length < 0) {
+            throw new IllegalStateException("Negative component length! Can't deserialize");
+        }
+        this.skip(length);
+    }
+
+    /**
+     * Walks the style of the frame's component up to the hover text or entity name nested in it,
+     * {@link #finishStyle(Frame)} completes the style afterwards
+     *
+     * @return whether a nested component was pushed
+     */
+    private boolean sharedStyle(Frame frame) throws IOException {
+        boolean visit = frame.enter;
+        StyleParts reference = frame.reference;
+
+        if (this.styles != null) {
+            int index = deserializeVarInt(this);
+            if (index == 0) {
+                frame.styleStart = this.position;
+            } else {
+                if (index > this.styleCount) {
+                    throw new IllegalArgumentException("Invalid style reference " + (index - 1));
+                }
+                if (this.resolving) {
+                    // A tabled style is complete on its own, whatever the style delta it was first written as was relative to
+                    frame.style = this.styleParts[index - 1];
+                    return visit && this.reportStyle(frame);
+                }
+                if (!visit) {
+                    return false;
+                }
+                this.replayStyle(frame, this.styles[index - 1]);
+            }
+        }
+
+        if (reference != null) {
+            return this.styleDelta(frame, visit, reference);
+        }
+        return this.style(frame, visit);
+    }
+
+    private void finishStyle(Frame frame) {
+        if (frame.styleResume >= 0) {
+            this.position = frame.styleResume;
+            this.replaying--;
+        }
+        if (frame.styleEntered) {
+            this.visitor.exitStyle();
+        }
+
+        if (frame.styleStart >= 0 && this.replaying == 0) {
+            if (this.resolving) {
+                this.styleParts = add(this.styleParts, this.styleCount, frame.style);
+            }
+            this.styles = add(this.styles, this.styleCount++, frame.styleStart);
+        }
+    }
+
+    /**
+     * Continues at a style or hover event written before, until {@link #finishStyle(Frame)}
+     */
+    private void replayStyle(Frame frame, int offset) {
+        frame.styleResume = this.position;
+        this.position = offset;
+        this.replaying++;
+    }
+
+    private boolean style(Frame frame, boolean visit) throws IOException {
+        boolean enter = frame.styleEntered = visit && this.visitor.enterStyle();
+        ComponentVisitor visitor = this.visitor;
+
+        // Skipping a style delta, the parts it leaves out aren't written at all
+        int same = this.styleDelta ? this.readByte() & 0xFF : 0;
+        if ((same & STYLE_SAME_DECORATIONS) == 0) {
+            int decorationValue = this.readByte() & 0xFF;
+            if (enter) this.reportDecorations(decorationValue);
+        }
+
+        int state = this.readByte() & 0xFF;
+
+        if ((state & STYLE_COLOR_MASK) != 0) {
+            int color = this.color();
+            if (enter) visitor.color(color);
+        }
+
+        if ((state & STYLE_FONT_MASK) != 0) {
+            Key font = this.key(enter);
+            if (enter) visitor.font(font);
+        }
+
+        if ((state & STYLE_INSERTION_MASK) != 0) {
+            String insertion = this.string(enter);
+            if (enter) visitor.insertion(insertion);
+        }
+
+        if ((state & STYLE_CLICK_EVENT_MASK) != 0) {
+            int actionId = clickAction(state);
+            String value = this.string(enter);
+            if (enter) visitor.clickEvent(CLICK_ACTIONS[actionId], value);
+        }
+
+        if ((state & STYLE_HOVER_EVENT_MASK) != 0) {
+            return this.hover(((state & STYLE_HOVER_EVENT_MASK) >>> STYLE_HOVER_EVENT_SHIFT) - 1, enter);
+        }
+        return false;
+    }
+
+    /**
+     * Walks a style delta, taking the parts it leaves out from the reference
+     */
+    private boolean styleDelta(Frame frame, boolean visit, StyleParts reference) throws IOException {
+        int same = this.readByte() & 0xFF;
+
+        StyleParts parts = new StyleParts();
+        parts.copy(reference, same);
+        if ((same & STYLE_SAME_DECORATIONS) == 0) {
+            parts.decorations = this.readByte() & 0xFF;
+        }
+
+        int state = this.readByte() & 0xFF;
+
+        if ((state & STYLE_COLOR_MASK) != 0) {
+            parts.present |= STYLE_SAME_COLOR;
+            parts.color = this.color();
+        }
+
+        if ((state & STYLE_FONT_MASK) != 0) {
+            parts.present |= STYLE_SAME_FONT;
+            parts.fontNamespace = this.stringLocation();
+            parts.fontValue = this.stringLocation();
+        }
+
+        if ((state & STYLE_INSERTION_MASK) != 0) {
+            parts.present |= STYLE_SAME_INSERTION;
+            parts.insertion = this.stringLocation();
+        }
+
+        if ((state & STYLE_CLICK_EVENT_MASK) != 0) {
+            parts.present |= STYLE_SAME_CLICK_EVENT;
+            parts.clickAction = clickAction(state);
+            parts.click = this.stringLocation();
+        }
+
+        int hoverAction = ((state & STYLE_HOVER_EVENT_MASK) >>> STYLE_HOVER_EVENT_SHIFT) - 1;
+        if (hoverAction >= 0) {
+            parts.present |= STYLE_SAME_HOVER_EVENT;
+            parts.hoverAction = hoverAction;
+            parts.hover = this.position;
+        }
+        frame.style = parts;
+
+        boolean enter = frame.styleEntered = visit && this.visitor.enterStyle();
+        if (enter) {
+            this.reportStyleHead(parts);
+        }
+        if (hoverAction >= 0) {
+            return this.hover(hoverAction, enter);
+        }
+        if (enter && (parts.present & STYLE_SAME_HOVER_EVENT) != 0) {
+            return this.replayHover(frame, parts);
+        }
+        return false;
+    }
+
+    private boolean reportStyle(Frame frame) throws IOException {
+        if (!this.visitor.enterStyle()) {
+            return false;
+        }
+        frame.styleEntered = true;
+
+        StyleParts parts = frame.style;
+        this.reportStyleHead(parts);
+        if ((parts.present & STYLE_SAME_HOVER_EVENT) != 0) {
+            return this.replayHover(frame, parts);
+        }
+        return false;
+    }
+
+    /**
+     * Reports everything of the style except the hover event
+     */
+    private void reportStyleHead(StyleParts parts) {
+        ComponentVisitor visitor = this.visitor;
+
+        this.reportDecorations(parts.decorations);
+        if ((parts.present & STYLE_SAME_COLOR) != 0) {
+            visitor.color(parts.color);
+        }
+        if ((parts.present & STYLE_SAME_FONT) != 0) {
+            visitor.font(Key.key(this.string(parts.fontNamespace), this.string(parts.fontValue)));
+        }
+        if ((parts.present & STYLE_SAME_INSERTION) != 0) {
+            visitor.insertion(this.string(parts.insertion));
+        }
+        if ((parts.present & STYLE_SAME_CLICK_EVENT) != 0) {
+            visitor.clickEvent(CLICK_ACTIONS[parts.clickAction], this.string(parts.click));
+        }
+    }
+
+    private void reportDecorations(int decorationValue) {
+        for (int i = DECORATIONS.length - 1; i >= 0; i--) {
+            TextDecoration.State state = STATES[decorationValue % 3];
+            decorationValue /= 3;
+
+            if (state != TextDecoration.State.NOT_SET) {
+                this.visitor.decoration(DECORATIONS[i], state);
+            }
+        }
+    }
+
+    private boolean replayHover(Frame frame, StyleParts parts) throws IOException {
+        this.replayStyle(frame, parts.hover);
+        return this.hover(parts.hoverAction, true);
+    }
+
+    private static int clickAction(int state) {
+        int actionId = ((state & STYLE_CLICK_EVENT_MASK) >>> STYLE_CLICK_EVENT_SHIFT) - 1;
+        if (actionId >= CLICK_ACTIONS.length) {
+            throw notSureHowToDeserialize();
+        }
+        return actionId;
+    }
+
+    /**
+     * @return whether the hover text or entity name was pushed
+     */
+    private boolean hover(int action, boolean enter) throws IOException {
+        ComponentVisitor visitor = this.visitor;
+
+        switch (action) {
+            case 0 -> {
+                Key item = this.key(enter);
+                int count = this.readByte();
+                String nbt = this.string(enter);
+                if (enter) visitor.showItem(item, count, nbt.isEmpty() ? null : nbt);
+                return false;
+            }
+            case 1 -> {
+                Key type = this.key(enter);
+                long most = this.readLong();
+                long least = this.readLong();
+                if (enter) visitor.showEntity(type, new UUID(most, least));
+
+                if (this.readBoolean()) {
+                    this.pushNested(ComponentVisitor.Position.ENTITY_NAME, enter);
+                    return true;
+                }
+                return false;
+            }
+            case 2 -> {
+                this.pushNested(ComponentVisitor.Position.HOVER_TEXT, enter);
+                return true;
+            }
+            default -> throw notSureHowToDeserialize();
+        }
+    }
+
+    /**
+     * Where the parts of a resolved style were written, the parts it has are marked with the STYLE_SAME_* bits
+     */
+    private static final class StyleParts {
+        private static final StyleParts EMPTY = new StyleParts();
+        private static final int ALL = STYLE_SAME_DECORATIONS | STYLE_SAME_COLOR | STYLE_SAME_FONT | STYLE_SAME_INSERTION
+                | STYLE_SAME_CLICK_EVENT | STYLE_SAME_HOVER_EVENT;
+
+        private int present;
+        // As written, one base 3 digit per decoration
+        private int decorations;
+        private int color;
+        private long fontNamespace;
+        private long fontValue;
+        private long insertion;
+        private int clickAction;
+        private long click;
+        private int hoverAction;
+        // Offset of the hover event's fields
+        private int hover;
+
+        private void copy(StyleParts from, int parts) {
+            if ((parts & STYLE_SAME_DECORATIONS) != 0) this.decorations = from.decorations;
+            if ((parts & STYLE_SAME_COLOR) != 0) this.color = from.color;
+            if ((parts & STYLE_SAME_FONT) != 0) {
+                this.fontNamespace = from.fontNamespace;
+                this.fontValue = from.fontValue;
+            }
+            if ((parts & STYLE_SAME_INSERTION) != 0) this.insertion = from.insertion;
+            if ((parts & STYLE_SAME_CLICK_EVENT) != 0) {
+                this.clickAction = from.clickAction;
+                this.click = from.click;
+            }
+            if ((parts & STYLE_SAME_HOVER_EVENT) != 0) {
+                this.hoverAction = from.hoverAction;
+                this.hover = from.hover;
+            }
+            this.present = (this.present & ~parts) | (from.present & parts);
+        }
+
+        /**
+         * @param own the style of a component inheriting this one, null if it has none
+         * @return the style its children inherit
+         */
+        private StyleParts inherit(@Nullable StyleParts own) {
+            if (own == null) {
+                return this;
+            }
+
+            StyleParts effective = new StyleParts();
+            effective.copy(this, ALL);
+            effective.copy(own, own.present);
+
+            int decorations = 0;
+            for (int i = 0, digit = 1; i < DECORATIONS.length; i++, digit *= 3) {
+                int state = own.decorations / digit % 3;
+                decorations += (state != 0 ? state : this.decorations / digit % 3) * digit;
+            }
+            effective.decorations = decorations;
+            return effective;
+        }
+    }
+
+    /**
+     * @return the rgb value of the color
+     */
+    private int color() throws IOException {
+        if (this.colors == null) {
+            return deserializeRgb(this);
+        }
+
+        int code = deserializeVarInt(this);
+        if (code >= 0 && code < COLOR_LITERAL) {
+            return NAMED_COLORS[code].value();
+        }
+        if (code == COLOR_LITERAL) {
+            int rgb = deserializeRgb(this);
+            if (this.replaying == 0) {
+                this.colors = add(this.colors, this.colorCount++, rgb);
+            }
+            return rgb;
+        }
+
+        int index = code - COLOR_LITERAL - 1;
+        if (index < 0 || index >= this.colorCount) {
+            throw new IllegalArgumentException("Invalid color reference " + index);
+        }
+        return this.colors[index];
+    }
+
+    private static <T> T[] add(T[] table, int index, T value) {
+        if (index == table.length) {
+            table = Arrays.copyOf(table, table.length << 1);
+        }
+        table[index] = value;
+        return table;
+    }
+
+    private static int[] add(int[] table, int index, int value) {
+        if (index == table.length) {
+            table = Arrays.copyOf(table, table.length << 1);
+        }
+        table[index] = value;
+        return table;
+    }
+
+    // endregion [Walk]
+
+    // region [Primitives]
+
+    /**
+     * @param decode whether the string is needed, if not only its position is remembered
+     * @return the string, or null if it wasn't decoded
+     */
+    private String string(boolean decode) throws IOException {
+        long location = this.stringLocation();
+        return decode ? this.string(location) : null;
+    }
+
+    /**
+     * @param location as returned by {@link #stringLocation()}
+     */
+    private String string(long location) {
+        if (location < 0) {
+            return this.dictionary.get((int) (-location - 1));
+        }
+        return this.decode((int) (location >>> 32), (int) location);
+    }
+
+    /**
+     * Appends the string without decoding it into a String first, unless it contains non-ASCII characters
+     */
+    private void appendString(StringBuilder builder) throws IOException {
+        long location = this.stringLocation();
+        if (location < 0) {
+            builder.append(this.dictionary.get((int) (-location - 1)));
+            return;
+        }
+
+        int offset = (int) (location >>> 32);
+        int end = offset + (int) location;
+        for (int i = offset; i < end; i++) {
+            byte b = this.buffer.get(i);
+            if (b < 0) {
+                builder.append(this.decode(i, end - i));
+                return;
+            }
+            builder.append((char) b);
+        }
+    }
+
+    /**
+     * Reads a string reference or literal, remembering literals in the string table
+     *
+     * @return the offset of the UTF-8 bytes in the upper and their length in the lower half,
+     *         or the negated dictionary index minus one for dictionary entries
+     */
+    private long stringLocation() throws IOException {
+        int data = deserializeVarInt(this);
+
+        if (this.strings == null) {
+            return location(this.skip(this.limits.checkStringLength(data)), data);
+        }
+
+        if ((data & 1) != 0) {
+            int index = data >>> 1;
+
+            if (this.dictionary != null) {
+                if (index < this.dictionary.size()) {
+                    return -index - 1L;
+                }
+                index -= this.dictionary.size();
+            }
+
+            if (index >= this.stringCount) {
+                throw new IllegalArgumentException("Invalid string reference " + index);
+            }
+            return location(this.strings[index << 1], this.strings[(index << 1) + 1]);
+        }
+
+        int length = this.limits.checkStringLength(data >>> 1);
+        int offset = this.skip(length);
+
+        if (length > 0 && this.replaying == 0) {
+            this.strings = add(this.strings, this.stringCount << 1, offset);
+            this.strings = add(this.strings, (this.stringCount << 1) + 1, length);
+            this.stringCount++;
+        }
+        return location(offset, length);
+    }
+
+    private static long location(int offset, int length) {
+        return ((long) offset << 32) | length;
+    }
+
+    private Key key(boolean decode) throws IOException {
+        String namespace = this.string(decode);
+        String value = this.string(decode);
+        return decode ? Key.key(namespace, value) : null;
+    }
+
+    /**
+     * @return the offset of the skipped bytes
+     */
+    private int skip(int length) throws EOFException {
+        if (length < 0 || length > this.limit - this.position) {
+            throw this.endOfInput(length);
+        }
+
+        int offset = this.position;
+        this.position += length;
+        return offset;
+    }
+
+    private String decode(int offset, int length) {
+        if (this.buffer.hasArray()) {
+            return new String(this.buffer.array(), this.buffer.arrayOffset() + offset, length, StandardCharsets.UTF_8);
+        }
+
+        if (this.scratch == null || this.scratch.length < length) {
+            this.scratch = new byte[Math.max(length, 64)];
+        }
+        this.buffer.get(offset, this.scratch, 0, length);
+        return new String(this.scratch, 0, length, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public byte readByte() throws EOFException {
+        if (this.position >= this.limit) {
+            throw this.endOfInput(1);
+        }
+        return this.buffer.get(this.position++);
+    }
+
+    private EOFException endOfInput(int length) {
+        this.limits.checkBytes((long) this.position - this.start + length);
+        return new EOFException();
+    }
+
+    @Override
+    public int readInt() throws EOFException {
+        int value = this.buffer.getInt(this.skip(4));
+        return this.bigEndian ? value : Integer.reverseBytes(value);
+    }
+
+    @Override
+    public long readLong() throws EOFException {
+        long value = this.buffer.getLong(this.skip(8));
+        return this.bigEndian ? value : Long.reverseBytes(value);
+    }
+
+    @Override
+    public String readUtf8(int length, @Nullable InternCache cache) throws EOFException {
+        return this.decode(this.skip(length), length);
+    }
+
+    @Override
+    public void readFully(byte[] bytes, int offset, int length) throws EOFException {
+        this.buffer.get(this.skip(length), bytes, offset, length);
+    }
+
+    // endregion [Primitives]
+
+}
@@ -0,0 +1,679 @@
+package net.gauntletmc.adventure.serializer.binary;
+
+import net.kyori.adventure.key.Key;
+import net.kyori.adventure.text.*;
+import net.kyori.adventure.text.event.HoverEvent;
+import net.kyori.adventure.text.format.Style;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static net.gauntletmc.adventure.serializer.binary.BinaryComponentSerializerImpl.*;
+
+/**
+ * Decoder for one payload at a time that can stop whenever the input runs out and continue once more arrives
+ *
+ * Nesting is kept on an explicit stack of frames instead of the call stack, every frame remembers the step it's at
+ * A primitive (number, string, key, fixed size field) is only consumed once all of its bytes are available,
+ * so the caller only ever has to keep the bytes of one incomplete primitive around
+ *
+ * Without a buffer to look ahead in, {@link #decode(BinaryInput, DecoderState)} runs the same frames on blocking input,
+ * which is how every component is decoded, no matter how deeply nested
+ */
+/*package-private*/ final class ResumableDecoder {
+
+    // Results of resuming a frame that didn't finish it
+    private static final Object NEED_MORE = new Object();
+    private static final Object PUSHED = new Object();
+
+    private final BinaryComponentSerializerImpl serializer;
+    private final ArrayDeque<Object> frames = new ArrayDeque<>();
+
+    private @Nullable DecoderState decoder;
+    private final CodecInput codecInput = new CodecInput();
+
+    // Component frames on the stack, components started and bytes consumed, for the serializer's limits
+    private final DecoderLimits limits;
+    private int depth = 0;
+    private int nodes = 0;
+    private long bytes = 0;
+
+    ResumableDecoder(BinaryComponentSerializerImpl serializer) {
+        this.serializer = serializer;
+        this.limits = serializer.limits;
+    }
+
+    /**
+     * @return whether part of a payload has been consumed without the component being complete yet
+     */
+    boolean inProgress() {
+        return this.decoder != null;
+    }
+
+    void reset() {
+        this.decoder = null;
+        this.frames.clear();
+        this.depth = 0;
+        this.nodes = 0;
+        this.bytes = 0;
+    }
+
+    /**
+     * Decodes one component from input that blocks instead of running out
+     *
+     * @param decoder the state of the payload, whose header was read already
+     */
+    Component decode(BinaryInput input, DecoderState decoder) throws IOException {
+        this.decoder = decoder;
+        this.pushComponent();
+        try {
+            return this.run(null, input);
+        } finally {
+            this.reset();
+        }
+    }
+
+    /**
+     * Decodes as much as the buffer allows, advancing it past every consumed byte
+     *
+     * @return the component once the last byte of its payload was consumed, or null if more input is needed
+     */
+    @Nullable Component advance(ByteBuffer buffer) throws IOException {
+        try {
+            return this.resume(buffer, new ByteBufferBinaryInput(buffer));
+        } catch (IOException | RuntimeException e) {
+            // The payload is corrupt, nothing after it can be trusted either
+            this.reset();
+            throw e;
+        }
+    }
+
+    private @Nullable Component resume(ByteBuffer buffer, BinaryInput input) throws IOException {
+        int start = buffer.position();
+        if (this.decoder == null) {
+            if (buffer.hasRemaining() && buffer.get(buffer.position()) == VERSION_COMPRESSED) {
+                // The compressed bytes say nothing on their own, the frame is inflated and decoded once complete
+                return this.compressedFrameEnd(buffer) < 0 ? null : this.serializer.deserializePayload(input);
+            }
+            if (this.headerEnd(buffer) < 0) {
+                return null;
+            }
+            this.decoder = this.serializer.deserializeHeader(input);
+            this.pushComponent();
+        }
+
+        Component component = this.run(buffer, input);
+
+        // Only counted afterwards, so at most one chunk is consumed past the limit
+        this.bytes += buffer.position() - start;
+        this.limits.checkBytes(this.bytes);
+
+        if (component != null) {
+            this.reset();
+        }
+        return component;
+    }
+
+    /**
+     * @param buffer the buffer backing the input to look ahead in, or null if the input blocks instead of running out
+     */
+    private @Nullable Component run(@Nullable ByteBuffer buffer, BinaryInput input) throws IOException {
+        Object child = null;
+        while (true) {
+            Object frame = this.frames.peek();
+            Object result = frame instanceof ComponentFrame component
+                    ? this.resumeComponent(component, buffer, input, child)
+                    : this.resumeStyle((StyleFrame) frame, buffer, input, child);
+
+            if (result == NEED_MORE) {
+                return null;
+            } else if (result == PUSHED) {
+                child = null;
+                continue;
+            }
+
+            if (this.frames.pop() instanceof ComponentFrame) {
+                this.depth--;
+            }
+            if (this.frames.isEmpty()) {
+                return (Component) result;
+            }
+            child = result;
+        }
+    }
+
+    private Object push(Object frame) {
+        this.frames.push(frame);
+        return PUSHED;
+    }
+
+    private Object pushComponent() {
+        return this.pushComponent(Style.empty());
+    }
+
+    /**
+     * @param reference the style inherited from the parent, only children inherit one
+     */
+    private Object pushComponent(Style reference) {
+        this.limits.checkDepth(++this.depth);
+        this.limits.checkNodes(++this.nodes);
+
+        ComponentFrame frame = new ComponentFrame();
+        frame.reference = reference;
+        return this.push(frame);
+    }
+
+    // region [Frames]
+
+    private static final class ComponentFrame {
+        private static final int TYPE = 0;
+        private static final int HEAD = 1;
+        private static final int ARGS = 2;
+        private static final int SEPARATOR = 3;
+        private static final int NBT_TAIL = 4;
+        private static final int DATA = 5;
+        private static final int STYLE = 6;
+        private static final int CHILDREN = 7;
+
+        private int step = TYPE;
+        private byte type;
+        private ComponentBuilder<?, ?> builder;
+        // Instead of the builder for components read by a codec, style and children are set once all are read
+        private @Nullable Component custom;
+        private @Nullable List<Component> children;
+        private List<Component> args;
+        private int remaining;
+        // With style deltas, the style inherited from the parent, the component's own and the one its children inherit
+        private Style reference;
+        private @Nullable Style style;
+        private @Nullable Style effective;
+    }
+
+    private Object resumeComponent(ComponentFrame frame, @Nullable ByteBuffer buffer, BinaryInput input, @Nullable Object child) throws IOException {
+        DecoderState decoder = this.decoder;
+
+        while (true) {
+            switch (frame.step) {
+                case ComponentFrame.TYPE -> {
+                    if (this.typeEnd(buffer) < 0) return NEED_MORE;
+
+                    byte type = input.readByte();
+                    if (type == COMPONENT_REFERENCE && decoder.components != null) {
+                        int index = deserializeVarInt(input);
+                        if (index >= decoder.components.size()) {
+                            throw new IllegalArgumentException("Invalid component reference " + index);
+                        }
+                        return decoder.components.get(index);
+                    }
+
+                    frame.type = type;
+                    frame.step = ComponentFrame.HEAD;
+                }
+                case ComponentFrame.HEAD -> {
+                    Object result = this.resumeComponentHead(frame, buffer, input);
+                    if (result != null) return result;
+                }
+                case ComponentFrame.ARGS -> {
+                    if (child != null) {
+                        frame.args.add((Component) child);
+                        child = null;
+                    }
+                    if (frame.args.size() < frame.remaining) {
+                        return this.pushComponent();
+                    }
+
+                    ((TranslatableComponent.Builder) frame.builder).args(frame.args);
+                    frame.step = ComponentFrame.DATA;
+                }
+                case ComponentFrame.SEPARATOR -> {
+                    Component separator = (Component) child;
+                    child = null;
+
+                    if (frame.type == COMPONENT_SELECTOR) {
+                        ((SelectorComponent.Builder) frame.builder).separator(separator);
+                        frame.step = ComponentFrame.DATA;
+                    } else {
+                        ((NBTComponentBuilder<?, ?>) frame.builder).separator(separator);
+                        frame.step = ComponentFrame.NBT_TAIL;
+                    }
+                }
+                case ComponentFrame.NBT_TAIL -> {
+                    switch (frame.type) {
+                        case COMPONENT_BLOCK_NBT -> {
+                            if (this.blockNbtPosEnd(buffer) < 0) return NEED_MORE;
+                            ((BlockNBTComponent.Builder) frame.builder).pos(this.serializer.deserializeBlockNbtPos(input));
+                        }
+                        case COMPONENT_ENTITY_NBT -> {
+                            if (this.stringEnd(buffer, 0) < 0) return NEED_MORE;
+                            ((EntityNBTComponent.Builder) frame.builder).selector(this.serializer.deserializeString(input, decoder));
+                        }
+                        default -> {
+                            if (this.keyEnd(buffer, 0) < 0) return NEED_MORE;
+                            ((StorageNBTComponent.Builder) frame.builder).storage(this.serializer.deserializeKey(input, decoder));
+                        }
+                    }
+                    frame.step = ComponentFrame.DATA;
+                }
+                case ComponentFrame.DATA -> {
+                    if (this.varIntEnd(buffer, 0) < 0) return NEED_MORE;
+
+                    int data = deserializeVarInt(input);
+                    frame.remaining = this.limits.checkChildren(data >> 1);
+
+                    if ((data & 1) != 0) {
+                        StyleFrame style = new StyleFrame();
+                        style.reference = decoder.styleDelta ? frame.reference : null;
+                        frame.step = ComponentFrame.STYLE;
+                        return this.push(style);
+                    }
+                    frame.step = ComponentFrame.CHILDREN;
+                }
+                case ComponentFrame.STYLE -> {
+                    frame.style = (Style) child;
+                    if (frame.builder != null) {
+                        frame.builder.style(frame.style);
+                    }
+                    child = null;
+                    frame.step = ComponentFrame.CHILDREN;
+                }
+                case ComponentFrame.CHILDREN -> {
+                    if (child != null) {
+                        if (frame.builder != null) {
+                            frame.builder.append((Component) child);
+                        } else {
+                            frame.children.add((Component) child);
+                        }
+                        child = null;
+                    }
+                    if (frame.remaining > 0) {
+                        frame.remaining--;
+                        if (!decoder.styleDelta) {
+                            return this.pushComponent();
+                        }
+
+                        if (frame.effective == null) {
+                            frame.effective = effectiveStyle(frame.reference, frame.style);
+                        }
+                        return this.pushComponent(frame.effective);
+                    }
+
+                    Component component = frame.builder != null ? frame.builder.build() : this.finishCustom(frame);
+                    if (decoder.components != null) {
+                        decoder.components.add(component);
+                    }
+                    return component;
+                }
+                default -> throw new IllegalStateException("Unknown step " + frame.step);
+            }
+        }
+    }
+
+    /**
+     * Reads the fields written before the first nested component
+     *
+     * @return null to continue with the next step, otherwise the result of the frame
+     */
+    private @Nullable Object resumeComponentHead(ComponentFrame frame, @Nullable ByteBuffer buffer, BinaryInput input) throws IOException {
+        DecoderState decoder = this.decoder;
+        BinaryComponentSerializerImpl serializer = this.serializer;
+
+        switch (frame.type) {
+            case COMPONENT_TEXT -> {
+                if (this.stringEnd(buffer, 0) < 0) return NEED_MORE;
+                frame.builder = Component.text()
+                        .content(serializer.deserializeString(input, decoder));
+                frame.step = ComponentFrame.DATA;
+            }
+            case COMPONENT_TRANSLATABLE -> {
+                if (fixedEnd(buffer, this.stringEnd(buffer, 0), 1) < 0) return NEED_MORE;
+                frame.builder = Component.translatable()
+                        .key(serializer.deserializeInternedString(input, decoder));
+                frame.remaining = this.limits.checkChildren(input.readByte());
+                frame.args = new ArrayList<>(Math.max(frame.remaining, 0));
+                frame.step = ComponentFrame.ARGS;
+            }
+            case COMPONENT_SCORE -> {
+                if (this.stringEnd(buffer, this.stringEnd(buffer, 0)) < 0) return NEED_MORE;
+                frame.builder = Component.score()
+                        .name(serializer.deserializeString(input, decoder))
+                        .objective(serializer.deserializeString(input, decoder));
+                frame.step = ComponentFrame.DATA;
+            }
+            case COMPONENT_SELECTOR -> {
+                if (fixedEnd(buffer, this.stringEnd(buffer, 0), 1) < 0) return NEED_MORE;
+                frame.builder = Component.selector()
+                        .pattern(serializer.deserializeString(input, decoder));
+
+                if (input.readBoolean()) {
+                    frame.step = ComponentFrame.SEPARATOR;
+                    return this.pushComponent();
+                }
+                frame.step = ComponentFrame.DATA;
+            }
+            case COMPONENT_KEYBIND -> {
+                if (this.stringEnd(buffer, 0) < 0) return NEED_MORE;
+                frame.builder = Component.keybind()
+                        .keybind(serializer.deserializeString(input, decoder));
+                frame.step = ComponentFrame.DATA;
+            }
+            case COMPONENT_BLOCK_NBT, COMPONENT_ENTITY_NBT, COMPONENT_STORAGE_NBT -> {
+                if (fixedEnd(buffer, this.stringEnd(buffer, 0), 2) < 0) return NEED_MORE;
+
+                NBTComponentBuilder<?, ?> nbt = switch (frame.type) {
+                    case COMPONENT_BLOCK_NBT -> Component.blockNBT();
+                    case COMPONENT_ENTITY_NBT -> Component.entityNBT();
+                    default -> Component.storageNBT();
+                };
+                nbt.nbtPath(serializer.deserializeString(input, decoder))
+                        .interpret(input.readBoolean());
+                frame.builder = nbt;
+
+                if (input.readBoolean()) {
+                    frame.step = ComponentFrame.SEPARATOR;
+                    return this.pushComponent();
+                }
+                frame.step = ComponentFrame.NBT_TAIL;
+            }
+            case COMPONENT_CUSTOM -> {
+                if (this.customEnd(buffer) < 0) return NEED_MORE;
+                frame.custom = serializer.deserializeCustom(input, this.codecInput);
+                frame.children = new ArrayList<>();
+                frame.step = ComponentFrame.DATA;
+            }
+            default -> throw notSureHowToDeserialize();
+        }
+        return null;
+    }
+
+    private Component finishCustom(ComponentFrame frame) {
+        Component component = frame.custom;
+        if (frame.style != null) {
+            component = component.style(frame.style);
+        }
+        return frame.children.isEmpty() ? component : component.children(frame.children);
+    }
+
+    private static final class StyleFrame {
+        private static final int TAG = 0;
+        private static final int HEAD = 1;
+        private static final int HOVER = 2;
+        private static final int ENTITY_NAME = 3;
+        private static final int TEXT = 4;
+
+        private int step = TAG;
+        private boolean shared;
+        private @Nullable Style reference;
+        private Style.Builder builder;
+        private int hoverAction;
+        private Key entityType;
+        private UUID entityId;
+    }
+
+    private Object resumeStyle(StyleFrame frame, @Nullable ByteBuffer buffer, BinaryInput input, @Nullable Object child) throws IOException {
+        DecoderState decoder = this.decoder;
+
+        while (true) {
+            switch (frame.step) {
+                case StyleFrame.TAG -> {
+                    if (decoder.styles != null) {
+                        if (this.varIntEnd(buffer, 0) < 0) return NEED_MORE;
+
+                        int index = deserializeVarInt(input);
+                        if (index != 0) {
+                            if (index > decoder.styles.size()) {
+                                throw new IllegalArgumentException("Invalid style reference " + (index - 1));
+                            }
+                            return decoder.styles.get(index - 1);
+                        }
+                        frame.shared = true;
+                    }
+                    frame.step = StyleFrame.HEAD;
+                }
+                case StyleFrame.HEAD -> {
+                    if (this.styleHeadEnd(buffer, frame.reference != null) < 0) return NEED_MORE;
+
+                    frame.builder = Style.style();
+                    int state = this.serializer.deserializeStyleHead(frame.builder, frame.reference, input, decoder);
+
+                    if ((state & STYLE_HOVER_EVENT_MASK) == 0) {
+                        return this.finishStyle(frame);
+                    }
+                    frame.hoverAction = ((state & STYLE_HOVER_EVENT_MASK) >>> STYLE_HOVER_EVENT_SHIFT) - 1;
+                    frame.step = StyleFrame.HOVER;
+                }
+                case StyleFrame.HOVER -> {
+                    switch (frame.hoverAction) {
+                        case 0 -> {
+                            if (this.stringEnd(buffer, fixedEnd(buffer, this.keyEnd(buffer, 0), 1)) < 0) return NEED_MORE;
+                            frame.builder.hoverEvent(HoverEvent.showItem(this.serializer.deserializeShowItem(input, decoder)));
+                            return this.finishStyle(frame);
+                        }
+                        case 1 -> {
+                            if (fixedEnd(buffer, this.keyEnd(buffer, 0), 17) < 0) return NEED_MORE;
+                            frame.entityType = this.serializer.deserializeKey(input, decoder);
+                            frame.entityId = new UUID(input.readLong(), input.readLong());
+
+                            if (input.readBoolean()) {
+                                frame.step = StyleFrame.ENTITY_NAME;
+                                return this.pushComponent();
+                            }
+                            frame.builder.hoverEvent(HoverEvent.showEntity(HoverEvent.ShowEntity.of(frame.entityType, frame.entityId)));
+                            return this.finishStyle(frame);
+                        }
+                        case 2 -> {
+                            frame.step = StyleFrame.TEXT;
+                            return this.pushComponent();
+                        }
+                        default -> throw notSureHowToDeserialize();
+                    }
+                }
+                case StyleFrame.ENTITY_NAME -> {
+                    frame.builder.hoverEvent(HoverEvent.showEntity(HoverEvent.ShowEntity.of(frame.entityType, frame.entityId, (Component) child)));
+                    return this.finishStyle(frame);
+                }
+                case StyleFrame.TEXT -> {
+                    frame.builder.hoverEvent(HoverEvent.showText((Component) child));
+                    return this.finishStyle(frame);
+                }
+                default -> throw new IllegalStateException("Unknown step " + frame.step);
+            }
+        }
+    }
+
+    private Style finishStyle(StyleFrame frame) {
+        Style style = frame.builder.build();
+        if (frame.shared) {
+            this.decoder.styles.add(style);
+        }
+        return style;
+    }
+
+    // endregion [Frames]
+
+    // region [Lookahead]
+
+    // Every *End method takes an offset relative to the buffer's position and returns the offset right after
+    // the primitive found there, or -1 if it isn't completely available yet (which includes being passed -1)
+    // Without a buffer the input blocks, so everything counts as available
+
+    private static int fixedEnd(@Nullable ByteBuffer buffer, int offset, int length) {
+        if (buffer == null) return offset;
+        if (offset < 0 || length > buffer.remaining() - offset) return -1;
+        return offset + length;
+    }
+
+    private int varIntEnd(@Nullable ByteBuffer buffer, int offset) {
+        if (buffer == null) return offset;
+        if (offset < 0) return -1;
+
+        for (int i = 0; i < 5; i++) {
+            if (offset + i >= buffer.remaining()) return -1;
+            if (buffer.get(buffer.position() + offset + i) >= 0) return offset + i + 1;
+        }
+        throw new IllegalArgumentException("VarInt too big");
+    }
+
+    /**
+     * Only valid once {@link #varIntEnd(ByteBuffer, int)} found the varint to be complete
+     */
+    private static int peekVarInt(ByteBuffer buffer, int offset) {
+        int result = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = buffer.get(buffer.position() + offset++);
+            result |= (b & 0x7f) << shift;
+            if (b >= 0) {
+                return result;
+            }
+        }
+    }
+
+    private int signedIntEnd(@Nullable ByteBuffer buffer, int offset) {
+        if (buffer == null) return offset;
+        if (offset < 0 || offset >= buffer.remaining()) return -1;
+
+        byte b = buffer.get(buffer.position() + offset++);
+        if (b == SIGN_MASK) {
+            return fixedEnd(buffer, offset, 4);
+        }
+
+        // At most three continuation bytes, the last one is read whole
+        for (int i = 0; b < 0 && i < 3; i++) {
+            if (offset >= buffer.remaining()) return -1;
+            b = buffer.get(buffer.position() + offset++);
+        }
+        return offset;
+    }
+
+    private int stringEnd(@Nullable ByteBuffer buffer, int offset) {
+        if (buffer == null) return offset;
+        int end = this.varIntEnd(buffer, offset);
+        if (end < 0) return -1;
+
+        int data = peekVarInt(buffer, offset);
+        int length;
+        if (this.decoder.strings == null) {
+            length = data;
+        } else if ((data & 1) != 0) {
+            return end;
+        } else {
+            length = data >>> 1;
+        }
+
+        // Checked before waiting for the string, so the caller never holds back more than the limit
+        return fixedEnd(buffer, end, this.limits.checkStringLength(length));
+    }
+
+    private int keyEnd(@Nullable ByteBuffer buffer, int offset) {
+        return this.stringEnd(buffer, this.stringEnd(buffer, offset));
+    }
+
+    private int typeEnd(@Nullable ByteBuffer buffer) {
+        if (buffer == null) return 0;
+        if (!buffer.hasRemaining()) return -1;
+
+        if (buffer.get(buffer.position()) == COMPONENT_REFERENCE && this.decoder.components != null) {
+            return this.varIntEnd(buffer, 1);
+        }
+        return 1;
+    }
+
+    private int headerEnd(ByteBuffer buffer) {
+        if (!buffer.hasRemaining()) return -1;
+        if (buffer.get(buffer.position()) != VERSION_FLAGS) return 1;
+
+        int end = this.varIntEnd(buffer, 1);
+        if (end < 0) return -1;
+
+        if ((peekVarInt(buffer, 1) & FLAG_DICTIONARY) != 0) {
+            return this.varIntEnd(buffer, end);
+        }
+        return end;
+    }
+
+    private int compressedFrameEnd(ByteBuffer buffer) {
+        int lengthEnd = this.varIntEnd(buffer, this.varIntEnd(buffer, 1));
+        int end = this.varIntEnd(buffer, lengthEnd);
+        if (end < 0) return -1;
+
+        int compressed = peekVarInt(buffer, lengthEnd);
+        if (compressed < 0) {
+            throw new IllegalStateException("Negative compressed frame length! Can't deserialize");
+        }
+        // Checked before waiting for the frame, so the caller never holds back more than the limit
+        this.limits.checkBytes((long) end + compressed);
+        return fixedEnd(buffer, end, compressed);
+    }
+
+    private int customEnd(@Nullable ByteBuffer buffer) {
+        if (buffer == null) return 0;
+
+        // The codec id, then the length of the content
+        int lengthStart = this.varIntEnd(buffer, 0);
+        int end = this.varIntEnd(buffer, lengthStart);
+        if (end < 0) return -1;
+
+        int length = peekVarInt(buffer, lengthStart);
+        if (length < 0) {
+            throw new IllegalStateException("Negative component length! Can't deserialize");
+        }
+        // Checked before waiting for the content, so the caller never holds back more than the limit
+        this.limits.checkBytes((long) end + length);
+        return fixedEnd(buffer, end, length);
+    }
+
+    /**
+     * @param delta whether the style starts with the byte of parts left out, see STYLE_SAME_DECORATIONS
+     */
+    private int styleHeadEnd(@Nullable ByteBuffer buffer, boolean delta) {
+        if (buffer == null) return 0;
+
+        // Offset of the state byte
+        int head = 1;
+        if (delta) {
+            if (!buffer.hasRemaining()) return -1;
+            head = (buffer.get(buffer.position()) & STYLE_SAME_DECORATIONS) != 0 ? 1 : 2;
+        }
+        int end = fixedEnd(buffer, 0, head + 1);
+        if (end < 0) return -1;
+
+        int state = buffer.get(buffer.position() + head) & 0xFF;
+        if ((state & STYLE_COLOR_MASK) != 0) end = this.colorEnd(buffer, end);
+        if ((state & STYLE_FONT_MASK) != 0) end = this.keyEnd(buffer, end);
+        if ((state & STYLE_INSERTION_MASK) != 0) end = this.stringEnd(buffer, end);
+        if ((state & STYLE_CLICK_EVENT_MASK) != 0) end = this.stringEnd(buffer, end);
+        return end;
+    }
+
+    private int colorEnd(ByteBuffer buffer, int offset) {
+        if (this.decoder.colors == null) return fixedEnd(buffer, offset, 3);
+
+        int end = this.varIntEnd(buffer, offset);
+        if (end < 0) return -1;
+        return peekVarInt(buffer, offset) == COLOR_LITERAL ? fixedEnd(buffer, end, 3) : end;
+    }
+
+    private int blockNbtPosEnd(@Nullable ByteBuffer buffer) {
+        if (buffer == null) return 0;
+        if (!buffer.hasRemaining()) return -1;
+
+        return switch (buffer.get(buffer.position())) {
+            case 0 -> {
+                int end = 1;
+                for (int i = 0; i < 3; i++) {
+                    end = fixedEnd(buffer, this.signedIntEnd(buffer, end), 1);
+                }
+                yield end;
+            }
+            case 1 -> fixedEnd(buffer, 1, 24);
+            default -> throw notSureHowToDeserialize();
+        };
+    }
+
+    // endregion [Lookahead]
+
+}
@@ -0,0 +1,300 @@
+package net.gauntletmc.adventure.serializer.binary;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.UTFDataFormatException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import static net.gauntletmc.adventure.serializer.binary.BinaryComponentSerializerImpl.serializeVarInt;
+import static net.gauntletmc.adventure.serializer.binary.BinaryComponentSerializerImpl.varIntSize;
+
+/**
+ * Growable byte array the serializer encodes into before copying the result out
+ *
+ * Instances are reused through {@link #acquire()} and {@link #release(ScratchBuffer)}
+ * Platform threads keep one buffer in a thread local, virtual threads share a small lock-free pool
+ * so that millions of short-lived threads don't each pin their own buffer
+ *
+ * Also a {@link DataOutput}, so a {@link ComponentCodec} writes straight into the buffer
+ */
+/*package-private*/ final class ScratchBuffer implements BinaryOutput, DataOutput {
+
+    private static final int INITIAL_CAPACITY = 256;
+    // Buffers that grew past this for an oversized message are dropped instead of being kept around
+    private static final int MAX_RETAINED_CAPACITY = 64 * 1024;
+
+    private static final VarHandle SHORT = MethodHandles.byteArrayViewVarHandle(short[].class, ByteOrder.BIG_ENDIAN);
+    private static final VarHandle INT = MethodHandles.byteArrayViewVarHandle(int[].class, ByteOrder.BIG_ENDIAN);
+    private static final VarHandle LONG = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+
+    private static final ThreadLocal<ScratchBuffer> LOCAL = ThreadLocal.withInitial(() -> new ScratchBuffer(Origin.THREAD_LOCAL));
+    private static final AtomicReferenceArray<ScratchBuffer> SHARED =
+            new AtomicReferenceArray<>(Math.max(4, Runtime.getRuntime().availableProcessors()));
+
+    // Thread#isVirtual only exists on Java 19+, this library targets 17
+    private static final MethodHandle IS_VIRTUAL;
+
+    static {
+        MethodHandle isVirtual;
+        try {
+            isVirtual = MethodHandles.publicLookup().findVirtual(Thread.class, "isVirtual", MethodType.methodType(boolean.class));
+        } catch (ReflectiveOperationException e) {
+            isVirtual = null;
+        }
+        IS_VIRTUAL = isVirtual;
+    }
+
+    /**
+     * Where a buffer goes back to on release, buffers created while the thread local one is busy are dropped
+     * so they don't end up in the pool meant for virtual threads
+     */
+    enum Origin {
+        THREAD_LOCAL,
+        SHARED,
+        NONE
+    }
+
+    final Origin origin;
+
+    private byte[] buffer = new byte[INITIAL_CAPACITY];
+    private int size = 0;
+    // Only used for the thread local buffer
+    private boolean inUse = false;
+
+    ScratchBuffer() {
+        this(Origin.NONE);
+    }
+
+    private ScratchBuffer(Origin origin) {
+        this.origin = origin;
+    }
+
+    static ScratchBuffer acquire() {
+        Thread thread = Thread.currentThread();
+
+        if (!isVirtual(thread)) {
+            ScratchBuffer local = LOCAL.get();
+            if (!local.inUse) {
+                local.inUse = true;
+                return local;
+            }
+            // Re-entrant use on the same thread, the thread local one is busy
+            return new ScratchBuffer();
+        }
+
+        int slots = SHARED.length();
+        int start = (int) (thread.getId() % slots);
+        for (int i = 0; i < slots; i++) {
+            ScratchBuffer pooled = SHARED.getAndSet((start + i) % slots, null);
+            if (pooled != null) {
+                return pooled;
+            }
+        }
+        return new ScratchBuffer(Origin.SHARED);
+    }
+
+    static void release(ScratchBuffer scratch) {
+        scratch.reset();
+
+        if (scratch.origin == Origin.THREAD_LOCAL) {
+            scratch.inUse = false;
+            return;
+        }
+        if (scratch.origin == Origin.NONE) {
+            return;
+        }
+
+        int slots = SHARED.length();
+        for (int i = 0; i < slots; i++) {
+            if (SHARED.compareAndSet(i, null, scratch)) {
+                return;
+            }
+        }
+    }
+
+    static boolean isVirtual(Thread thread) {
+        if (IS_VIRTUAL == null) return false;
+        try {
+            return (boolean) IS_VIRTUAL.invokeExact(thread);
+        } catch (Throwable t) {
+            return false;
+        }
+    }
+
+    int size() {
+        return this.size;
+    }
+
+    byte[] array() {
+        return this.buffer;
+    }
+
+    byte[] toByteArray() {
+        return Arrays.copyOf(this.buffer, this.size);
+    }
+
+    /**
+     * Drops everything written after the first {@code size} bytes
+     */
+    void truncate(int size) {
+        this.size = size;
+    }
+
+    /**
+     * Writes a varint in front of everything written since the offset, moving that back
+     */
+    void insertVarInt(int offset, int value) throws IOException {
+        int end = this.size;
+        int length = varIntSize(value);
+        ensureCapacity(length);
+        System.arraycopy(this.buffer, offset, this.buffer, offset + length, end - offset);
+
+        this.size = offset;
+        serializeVarInt(value, this);
+        this.size = end + length;
+    }
+
+    void reset() {
+        this.size = 0;
+        if (this.buffer.length > MAX_RETAINED_CAPACITY) {
+            this.buffer = new byte[INITIAL_CAPACITY];
+        }
+    }
+
+    private void ensureCapacity(int extra) {
+        int required = this.size + extra;
+        if (required > this.buffer.length) {
+            this.buffer = Arrays.copyOf(this.buffer, Math.max(required, this.buffer.length << 1));
+        }
+    }
+
+    @Override
+    public void writeByte(int value) {
+        ensureCapacity(1);
+        this.buffer[this.size++] = (byte) value;
+    }
+
+    @Override
+    public void writeShort(int value) {
+        ensureCapacity(2);
+        SHORT.set(this.buffer, this.size, (short) value);
+        this.size += 2;
+    }
+
+    @Override
+    public void writeInt(int value) {
+        ensureCapacity(4);
+        INT.set(this.buffer, this.size, value);
+        this.size += 4;
+    }
+
+    @Override
+    public void writeLong(long value) {
+        ensureCapacity(8);
+        LONG.set(this.buffer, this.size, value);
+        this.size += 8;
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) {
+        ensureCapacity(length);
+        System.arraycopy(bytes, offset, this.buffer, this.size, length);
+        this.size += length;
+    }
+
+    @Override
+    public void writeUtf8(String value, int utf8Length) {
+        ensureCapacity(utf8Length);
+        this.size = Utf8.encode(value, this.buffer, this.size);
+    }
+
+    // region [DataOutput]
+
+    @Override
+    public void write(int value) {
+        writeByte(value);
+    }
+
+    @Override
+    public void write(byte[] bytes) {
+        write(bytes, 0, bytes.length);
+    }
+
+    @Override
+    public void writeBoolean(boolean value) {
+        writeByte(value ? 1 : 0);
+    }
+
+    @Override
+    public void writeChar(int value) {
+        writeShort(value);
+    }
+
+    @Override
+    public void writeFloat(float value) {
+        writeInt(Float.floatToIntBits(value));
+    }
+
+    @Override
+    public void writeDouble(double value) {
+        writeLong(Double.doubleToLongBits(value));
+    }
+
+    @Override
+    public void writeBytes(String value) {
+        ensureCapacity(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            this.buffer[this.size++] = (byte) value.charAt(i);
+        }
+    }
+
+    @Override
+    public void writeChars(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            writeShort(value.charAt(i));
+        }
+    }
+
+    /**
+     * Modified UTF-8 with a two byte length, like {@link java.io.DataOutputStream#writeUTF(String)}
+     */
+    @Override
+    public void writeUTF(String value) throws UTFDataFormatException {
+        int length = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            length += c >= 0x0001 && c <= 0x007F ? 1 : c > 0x07FF ? 3 : 2;
+        }
+        if (length > 0xFFFF) {
+            throw new UTFDataFormatException("Encoded string too long: " + length + " bytes");
+        }
+
+        ensureCapacity(2 + length);
+        writeShort(length);
+        byte[] buffer = this.buffer;
+        int position = this.size;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= 0x0001 && c <= 0x007F) {
+                buffer[position++] = (byte) c;
+            } else if (c > 0x07FF) {
+                buffer[position++] = (byte) (0xE0 | (c >> 12));
+                buffer[position++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                buffer[position++] = (byte) (0x80 | (c & 0x3F));
+            } else {
+                buffer[position++] = (byte) (0xC0 | (c >> 6));
+                buffer[position++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        this.size = position;
+    }
+
+    // endregion [DataOutput]
+
+}
@@ -0,0 +1,123 @@
+package net.gauntletmc.adventure.serializer.binary;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToIntBiFunction;
+
+/**
+ * Least-recently-used cache bounded by the total weight of its entries
+ *
+ * Keys are spread over independently locked segments so concurrent callers rarely contend,
+ * each segment gets an equal share of the weight budget
+ */
+/*package-private*/ final class SegmentedLruCache<K, V> {
+
+    private final Segment<K, V>[] segments;
+    private final ToIntBiFunction<K, V> weigher;
+    private final long maxSegmentWeight;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    @SuppressWarnings("unchecked")
+    SegmentedLruCache(long maxWeight, ToIntBiFunction<K, V> weigher) {
+        int count = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors() * 2 - 1)) << 1;
+        this.segments = new Segment[count];
+        for (int i = 0; i < count; i++) {
+            this.segments[i] = new Segment<>();
+        }
+        this.weigher = weigher;
+        this.maxSegmentWeight = Math.max(1, maxWeight / count);
+    }
+
+    private Segment<K, V> segment(Object key) {
+        int hash = key.hashCode();
+        hash ^= hash >>> 16;
+        return this.segments[hash & (this.segments.length - 1)];
+    }
+
+    /**
+     * @param key any object equal to a stored key, it doesn't need to be of type K
+     */
+    @Nullable V get(Object key) {
+        Segment<K, V> segment = this.segment(key);
+
+        V value;
+        synchronized (segment) {
+            value = segment.map.get(key);
+        }
+
+        if (value != null) {
+            this.hits.increment();
+        } else {
+            this.misses.increment();
+        }
+        return value;
+    }
+
+    void put(K key, V value) {
+        int weight = this.weigher.applyAsInt(key, value);
+        if (weight > this.maxSegmentWeight) {
+            return;
+        }
+
+        Segment<K, V> segment = this.segment(key);
+        synchronized (segment) {
+            V previous = segment.map.put(key, value);
+            if (previous != null) {
+                segment.weight -= this.weigher.applyAsInt(key, previous);
+            }
+            segment.weight += weight;
+
+            Iterator<Map.Entry<K, V>> iterator = segment.map.entrySet().iterator();
+            while (segment.weight > this.maxSegmentWeight && iterator.hasNext()) {
+                Map.Entry<K, V> eldest = iterator.next();
+                segment.weight -= this.weigher.applyAsInt(eldest.getKey(), eldest.getValue());
+                iterator.remove();
+                this.evictions.increment();
+            }
+        }
+    }
+
+    void remove(K key) {
+        Segment<K, V> segment = this.segment(key);
+        synchronized (segment) {
+            V previous = segment.map.remove(key);
+            if (previous != null) {
+                segment.weight -= this.weigher.applyAsInt(key, previous);
+            }
+        }
+    }
+
+    void clear() {
+        for (Segment<K, V> segment : this.segments) {
+            synchronized (segment) {
+                segment.map.clear();
+                segment.weight = 0;
+            }
+        }
+    }
+
+    CacheStats stats() {
+        long entries = 0;
+        long weight = 0;
+        for (Segment<K, V> segment : this.segments) {
+            synchronized (segment) {
+                entries += segment.map.size();
+                weight += segment.weight;
+            }
+        }
+        return new CacheStats(this.hits.sum(), this.misses.sum(), this.evictions.sum(), entries, weight);
+    }
+
+    private static final class Segment<K, V> {
+        private final LinkedHashMap<K, V> map = new LinkedHashMap<>(16, 0.75f, true);
+        private long weight = 0;
+    }
+
+}
@@ -0,0 +1,129 @@
+package net.gauntletmc.adventure.serializer.binary;
+
+import net.kyori.adventure.text.Component;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+
+/**
+ * Decodes payloads written back to back (for example by repeated calls to
+ * {@link BinaryComponentSerializer#serializeComponent(Component, java.io.DataOutputStream)}) from input arriving in
+ * arbitrary chunks, without ever blocking
+ *
+ * Decoding progress is kept between calls, only the bytes of a string or number split across chunks are held back
+ * Every component becomes available through {@link #poll()} as soon as its last byte arrived
+ *
+ * Instances are not thread-safe, use one per connection
+ * Created through {@link BinaryComponentSerializer#streamingDecoder()}
+ */
+public final class StreamingComponentDecoder {
+
+    private static final int READ_SIZE = 8192;
+
+    private final ResumableDecoder decoder;
+    private final ArrayDeque<Component> decoded = new ArrayDeque<>();
+
+    // Bytes received but not consumed yet, between pendingStart and pendingEnd
+    private byte[] pending = new byte[0];
+    private int pendingStart = 0;
+    private int pendingEnd = 0;
+
+    /*package-private*/ StreamingComponentDecoder(BinaryComponentSerializerImpl serializer) {
+        this.decoder = new ResumableDecoder(serializer);
+    }
+
+    /**
+     * Decodes the remaining bytes of the buffer, which is fully consumed afterwards
+     */
+    public void feed(ByteBuffer chunk) throws IOException {
+        if (this.pendingStart == this.pendingEnd) {
+            // Nothing held back, decode straight from the caller's buffer and only keep the tail
+            this.decodeAvailable(chunk);
+            this.hold(chunk);
+            return;
+        }
+
+        this.hold(chunk);
+        this.decodePending();
+    }
+
+    public void feed(byte[] bytes, int offset, int length) throws IOException {
+        this.feed(ByteBuffer.wrap(bytes, offset, length));
+    }
+
+    /**
+     * Reads once from the channel and decodes what was read
+     *
+     * @return the number of bytes read, possibly 0 for a non-blocking channel, or -1 at the end of the stream
+     */
+    public int read(ReadableByteChannel channel) throws IOException {
+        this.ensureCapacity(READ_SIZE);
+
+        int read = channel.read(ByteBuffer.wrap(this.pending, this.pendingEnd, this.pending.length - this.pendingEnd));
+        if (read > 0) {
+            this.pendingEnd += read;
+            this.decodePending();
+        }
+        return read;
+    }
+
+    /**
+     * @return the next completely decoded component, or null if none is available yet
+     */
+    public @Nullable Component poll() {
+        return this.decoded.poll();
+    }
+
+    /**
+     * @return whether bytes of an incomplete payload have been received, useful to detect truncation at the end of a stream
+     */
+    public boolean hasPartial() {
+        return this.decoder.inProgress() || this.pendingStart != this.pendingEnd;
+    }
+
+    private void decodeAvailable(ByteBuffer buffer) throws IOException {
+        Component component;
+        while (buffer.hasRemaining() && (component = this.decoder.advance(buffer)) != null) {
+            this.decoded.add(component);
+        }
+    }
+
+    private void decodePending() throws IOException {
+        ByteBuffer window = ByteBuffer.wrap(this.pending, this.pendingStart, this.pendingEnd - this.pendingStart);
+        this.decodeAvailable(window);
+        this.pendingStart = window.position();
+
+        if (this.pendingStart == this.pendingEnd) {
+            this.pendingStart = 0;
+            this.pendingEnd = 0;
+        }
+    }
+
+    private void hold(ByteBuffer chunk) {
+        int length = chunk.remaining();
+        this.ensureCapacity(length);
+        chunk.get(this.pending, this.pendingEnd, length);
+        this.pendingEnd += length;
+    }
+
+    private void ensureCapacity(int extra) {
+        if (this.pending.length - this.pendingEnd >= extra) {
+            return;
+        }
+
+        int held = this.pendingEnd - this.pendingStart;
+        if (this.pending.length - held < extra) {
+            int capacity = Math.max(held + extra, this.pending.length << 1);
+            this.pending = Arrays.copyOfRange(this.pending, this.pendingStart, this.pendingStart + capacity);
+        } else {
+            System.arraycopy(this.pending, this.pendingStart, this.pending, 0, held);
+        }
+        this.pendingStart = 0;
+        this.pendingEnd = held;
+    }
+
+}
@@ -0,0 +1,112 @@
+package net.gauntletmc.adventure.serializer.binary;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Static table of well-known strings shared by both ends of a connection
+ * A string found in the dictionary is written as a small index instead of its UTF-8 bytes
+ *
+ * The id is written into every payload using the dictionary and must change whenever the entries do,
+ * ids below {@value #FIRST_CUSTOM_ID} are reserved for dictionaries shipped with this library
+ */
+public final class StringDictionary {
+
+    public static final int FIRST_CUSTOM_ID = 16;
+
+    /**
+     * Vanilla translation keys, item and entity keys and default fonts
+     */
+    public static final StringDictionary MINECRAFT = loadResource(1, "minecraft-1.dict");
+
+    private final int id;
+    private final String[] entries;
+    private final Map<String, Integer> indices;
+
+    private StringDictionary(int id, List<String> entries) {
+        this.id = id;
+        this.entries = entries.toArray(new String[0]);
+        if (this.entries.length > BinaryComponentSerializerImpl.MAX_STRING_TABLE_VALUE) {
+            throw new IllegalArgumentException("Dictionaries can have at most " + BinaryComponentSerializerImpl.MAX_STRING_TABLE_VALUE + " entries");
+        }
+        this.indices = new HashMap<>(this.entries.length * 2);
+
+        for (int i = 0; i < this.entries.length; i++) {
+            if (this.indices.putIfAbsent(this.entries[i], i) != null) {
+                throw new IllegalArgumentException("Duplicate dictionary entry " + this.entries[i]);
+            }
+        }
+    }
+
+    /**
+     * Entries are assigned indices in order, so the most frequent strings should come first
+     */
+    public static StringDictionary of(int id, List<String> entries) {
+        if (id < FIRST_CUSTOM_ID) {
+            throw new IllegalArgumentException("Dictionary ids below " + FIRST_CUSTOM_ID + " are reserved");
+        }
+        return new StringDictionary(id, entries);
+    }
+
+    /**
+     * Reads one UTF-8 entry per line, blank lines and lines starting with '#' are skipped
+     */
+    public static StringDictionary load(int id, InputStream input) throws IOException {
+        if (id < FIRST_CUSTOM_ID) {
+            throw new IllegalArgumentException("Dictionary ids below " + FIRST_CUSTOM_ID + " are reserved");
+        }
+        return new StringDictionary(id, readEntries(input));
+    }
+
+    private static StringDictionary loadResource(int id, String name) {
+        try (InputStream input = StringDictionary.class.getResourceAsStream(name)) {
+            if (input == null) {
+                throw new IllegalStateException("Missing dictionary resource " + name);
+            }
+            return new StringDictionary(id, readEntries(input));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static List<String> readEntries(InputStream input) throws IOException {
+        List<String> entries = new ArrayList<>();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank() || line.startsWith("#")) continue;
+            entries.add(line);
+        }
+        return entries;
+    }
+
+    public int id() {
+        return this.id;
+    }
+
+    public int size() {
+        return this.entries.length;
+    }
+
+    /**
+     * @return the index of the string, or -1 if it isn't part of the dictionary
+     */
+    int indexOf(String value) {
+        Integer index = this.indices.get(value);
+        return index != null ? index : -1;
+    }
+
+    String get(int index) {
+        return this.entries[index];
+    }
+
+}
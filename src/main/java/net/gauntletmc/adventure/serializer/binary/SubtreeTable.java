@@ -0,0 +1,293 @@
+package net.gauntletmc.adventure.serializer.binary;
+
+import net.kyori.adventure.text.*;
+import net.kyori.adventure.text.event.HoverEvent;
+import net.kyori.adventure.text.format.Style;
+import net.kyori.adventure.text.format.TextColor;
+import net.kyori.adventure.text.format.TextDecoration;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import static net.gauntletmc.adventure.serializer.binary.BinaryComponentSerializerImpl.*;
+
+/**
+ * The subtrees written so far in a payload using the subtree table, found again by what they are written as
+ *
+ * Adventure's equals and hashCode walk the whole subtree recursively on every call, so they aren't used here:
+ * the hash of every component is computed once, bottom up on an explicit stack, and two subtrees are only compared
+ * node by node (on an explicit stack as well) when their hashes match
+ * Only what the encoder writes is compared, a component written by a codec only matches itself
+ */
+/*package-private*/ final class SubtreeTable {
+
+    private final ComponentCodecs codecs;
+    private final Map<Component, Integer> hashes = new IdentityHashMap<>();
+
+    // The first subtree with each hash, and for every subtree the next one with the same hash or -1
+    private final Map<Integer, Integer> first = new HashMap<>();
+    private Component[] subtrees = new Component[8];
+    private int[] next = new int[8];
+    private int size = 0;
+
+    // Reused by hash and same
+    private Component[] stack = new Component[16];
+    private boolean[] expanded = new boolean[16];
+    private final List<Component> nested = new ArrayList<>();
+    private final List<Component> otherNested = new ArrayList<>();
+
+    SubtreeTable(ComponentCodecs codecs) {
+        this.codecs = codecs;
+    }
+
+    /**
+     * @return the index of an earlier subtree written the same as the component, or -1 if there is none
+     */
+    int find(Component value) {
+        Integer index = this.first.get(this.hash(value));
+        for (int i = index != null ? index : -1; i >= 0; i = this.next[i]) {
+            if (this.same(this.subtrees[i], value)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    void add(Component value) {
+        if (this.size == this.subtrees.length) {
+            this.subtrees = Arrays.copyOf(this.subtrees, this.size << 1);
+            this.next = Arrays.copyOf(this.next, this.size << 1);
+        }
+        Integer previous = this.first.put(this.hash(value), this.size);
+        this.subtrees[this.size] = value;
+        this.next[this.size] = previous != null ? previous : -1;
+        this.size++;
+    }
+
+    private int hash(Component value) {
+        Integer cached = this.hashes.get(value);
+        if (cached != null) {
+            return cached;
+        }
+
+        // A component is hashed once all components nested in it are, then its hash combines theirs
+        int depth = this.push(0, value);
+        while (depth > 0) {
+            Component component = this.stack[depth - 1];
+            if (this.hashes.containsKey(component)) {
+                depth--;
+                continue;
+            }
+
+            List<Component> nested = this.nested;
+            nested.clear();
+            this.nested(component, nested);
+
+            if (!this.expanded[depth - 1]) {
+                this.expanded[depth - 1] = true;
+                for (Component child : nested) {
+                    if (!this.hashes.containsKey(child)) {
+                        depth = this.push(depth, child);
+                    }
+                }
+                continue;
+            }
+
+            int hash = this.shallowHash(component);
+            for (Component child : nested) {
+                hash = 31 * hash + this.hashes.get(child);
+            }
+            this.hashes.put(component, hash);
+            depth--;
+        }
+        return this.hashes.get(value);
+    }
+
+    private int push(int depth, Component value) {
+        if (depth == this.stack.length) {
+            this.stack = Arrays.copyOf(this.stack, depth << 1);
+            this.expanded = Arrays.copyOf(this.expanded, depth << 1);
+        }
+        this.stack[depth] = value;
+        this.expanded[depth] = false;
+        return depth + 1;
+    }
+
+    /**
+     * @return whether both subtrees are written the same, both have been hashed
+     */
+    private boolean same(Component value, Component other) {
+        int depth = this.push(this.push(0, value), other);
+        while (depth > 0) {
+            Component b = this.stack[--depth];
+            Component a = this.stack[--depth];
+            if (a == b) continue;
+
+            if (!this.hashes.get(a).equals(this.hashes.get(b)) || !this.sameNode(a, b)) {
+                return false;
+            }
+
+            List<Component> nested = this.nested;
+            List<Component> otherNested = this.otherNested;
+            nested.clear();
+            otherNested.clear();
+            this.nested(a, nested);
+            this.nested(b, otherNested);
+            for (int i = 0; i < nested.size(); i++) {
+                depth = this.push(this.push(depth, nested.get(i)), otherNested.get(i));
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Adds the components nested in the component to the list, in the order they are written
+     */
+    private void nested(Component value, List<Component> nested) {
+        switch (this.codecs.dispatch(value).type()) {
+            case COMPONENT_TRANSLATABLE -> nested.addAll(((TranslatableComponent) value).args());
+            case COMPONENT_SELECTOR -> addIfPresent(nested, ((SelectorComponent) value).separator());
+            case COMPONENT_BLOCK_NBT, COMPONENT_ENTITY_NBT, COMPONENT_STORAGE_NBT -> addIfPresent(nested, ((NBTComponent<?, ?>) value).separator());
+            default -> {}
+        }
+
+        HoverEvent<?> hover = value.style().hoverEvent();
+        if (hover != null) {
+            if (hover.value() instanceof Component text) {
+                nested.add(text);
+            } else if (hover.value() instanceof HoverEvent.ShowEntity entity) {
+                addIfPresent(nested, entity.name());
+            }
+        }
+        nested.addAll(value.children());
+    }
+
+    private static void addIfPresent(List<Component> nested, @Nullable Component component) {
+        if (component != null) {
+            nested.add(component);
+        }
+    }
+
+    /**
+     * Hashes what {@link #sameNode(Component, Component)} compares
+     */
+    private int shallowHash(Component value) {
+        int hash = switch (this.codecs.dispatch(value).type()) {
+            case COMPONENT_TEXT -> ((TextComponent) value).content().hashCode();
+            case COMPONENT_TRANSLATABLE -> ((TranslatableComponent) value).key().hashCode();
+            case COMPONENT_SCORE -> 31 * ((ScoreComponent) value).name().hashCode() + ((ScoreComponent) value).objective().hashCode();
+            case COMPONENT_SELECTOR -> ((SelectorComponent) value).pattern().hashCode();
+            case COMPONENT_KEYBIND -> ((KeybindComponent) value).keybind().hashCode();
+            case COMPONENT_BLOCK_NBT, COMPONENT_ENTITY_NBT, COMPONENT_STORAGE_NBT -> ((NBTComponent<?, ?>) value).nbtPath().hashCode();
+            default -> System.identityHashCode(value);
+        };
+        hash = 31 * hash + value.getClass().hashCode();
+
+        Style style = value.style();
+        TextColor color = style.color();
+        hash = 31 * hash + (color != null ? color.value() : -1);
+        hash = 31 * hash + Objects.hashCode(style.font());
+        hash = 31 * hash + Objects.hashCode(style.insertion());
+        hash = 31 * hash + Objects.hashCode(style.clickEvent());
+        for (TextDecoration decoration : DECORATIONS) {
+            hash = 31 * hash + style.decoration(decoration).ordinal();
+        }
+
+        HoverEvent<?> hover = style.hoverEvent();
+        if (hover != null) {
+            hash = 31 * hash + hoverAction(hover);
+            if (hover.value() instanceof HoverEvent.ShowEntity entity) {
+                hash = 31 * hash + entity.id().hashCode();
+            } else if (hover.value() instanceof HoverEvent.ShowItem item) {
+                hash = 31 * hash + item.hashCode();
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * @return whether both components are written the same, apart from the components nested in them
+     *         which are compared separately, though how many there are is compared here
+     */
+    private boolean sameNode(Component a, Component b) {
+        if (a.getClass() != b.getClass() || a.children().size() != b.children().size()) {
+            return false;
+        }
+
+        boolean content = switch (this.codecs.dispatch(a).type()) {
+            case COMPONENT_TEXT -> ((TextComponent) a).content().equals(((TextComponent) b).content());
+            case COMPONENT_TRANSLATABLE -> {
+                TranslatableComponent translatable = (TranslatableComponent) a;
+                TranslatableComponent other = (TranslatableComponent) b;
+                yield translatable.key().equals(other.key()) && translatable.args().size() == other.args().size();
+            }
+            case COMPONENT_SCORE -> {
+                ScoreComponent score = (ScoreComponent) a;
+                ScoreComponent other = (ScoreComponent) b;
+                yield score.name().equals(other.name()) && score.objective().equals(other.objective());
+            }
+            case COMPONENT_SELECTOR -> {
+                SelectorComponent selector = (SelectorComponent) a;
+                SelectorComponent other = (SelectorComponent) b;
+                yield selector.pattern().equals(other.pattern()) && (selector.separator() == null) == (other.separator() == null);
+            }
+            case COMPONENT_KEYBIND -> ((KeybindComponent) a).keybind().equals(((KeybindComponent) b).keybind());
+            case COMPONENT_BLOCK_NBT, COMPONENT_ENTITY_NBT, COMPONENT_STORAGE_NBT -> sameNbt((NBTComponent<?, ?>) a, (NBTComponent<?, ?>) b);
+            // Written by a codec, which is all there is to know about what it writes
+            default -> false;
+        };
+        return content && sameStyle(a.style(), b.style());
+    }
+
+    private static boolean sameNbt(NBTComponent<?, ?> a, NBTComponent<?, ?> b) {
+        if (!a.nbtPath().equals(b.nbtPath()) || a.interpret() != b.interpret() || (a.separator() == null) != (b.separator() == null)) {
+            return false;
+        }
+
+        if (a instanceof BlockNBTComponent block) {
+            return block.pos().equals(((BlockNBTComponent) b).pos());
+        } else if (a instanceof EntityNBTComponent entity) {
+            return entity.selector().equals(((EntityNBTComponent) b).selector());
+        }
+        return ((StorageNBTComponent) a).storage().equals(((StorageNBTComponent) b).storage());
+    }
+
+    private static boolean sameStyle(Style a, Style b) {
+        if (a == b) {
+            return true;
+        }
+
+        if (!Objects.equals(a.color(), b.color()) || !Objects.equals(a.font(), b.font())
+                || !Objects.equals(a.insertion(), b.insertion()) || !Objects.equals(a.clickEvent(), b.clickEvent())) {
+            return false;
+        }
+        for (TextDecoration decoration : DECORATIONS) {
+            if (a.decoration(decoration) != b.decoration(decoration)) {
+                return false;
+            }
+        }
+
+        HoverEvent<?> hover = a.hoverEvent();
+        HoverEvent<?> other = b.hoverEvent();
+        if (hover == null || other == null) {
+            return hover == other;
+        }
+        if (hover.action() != other.action()) {
+            return false;
+        }
+        if (hover.value() instanceof HoverEvent.ShowEntity entity) {
+            HoverEvent.ShowEntity otherEntity = (HoverEvent.ShowEntity) other.value();
+            return entity.type().equals(otherEntity.type()) && entity.id().equals(otherEntity.id())
+                    && (entity.name() == null) == (otherEntity.name() == null);
+        }
+        // Hover texts are compared separately
+        return hover.value() instanceof Component || hover.value().equals(other.value());
+    }
+
+}
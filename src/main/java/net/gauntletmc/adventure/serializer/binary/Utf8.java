@@ -0,0 +1,114 @@
+package net.gauntletmc.adventure.serializer.binary;
+
+import java.io.IOException;
+
+/**
+ * UTF-8 encoding without the temporary array of {@link String#getBytes(java.nio.charset.Charset)}
+ * Produces exactly the same bytes, including replacing unpaired surrogates with '?'
+ */
+/*package-private*/ final class Utf8 {
+
+    private Utf8() {
+    }
+
+    static int encodedLength(String value) {
+        int length = value.length();
+
+        int i = 0;
+        while (i < length && value.charAt(i) < 0x80) i++;
+        if (i == length) return length;
+
+        long encoded = i;
+        for (; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                encoded += 1;
+            } else if (c < 0x800) {
+                encoded += 2;
+            } else if (Character.isSurrogate(c)) {
+                if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                    encoded += 4;
+                    i++;
+                } else {
+                    encoded += 1;
+                }
+            } else {
+                encoded += 3;
+            }
+        }
+
+        if (encoded > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Can't serialize a string of " + encoded + " UTF-8 bytes, at most " + Integer.MAX_VALUE + " are allowed");
+        }
+        return (int) encoded;
+    }
+
+    /**
+     * @return the offset after the last byte written
+     */
+    static int encode(String value, byte[] bytes, int offset) {
+        int length = value.length();
+
+        int i = 0;
+        for (; i < length; i++) {
+            char c = value.charAt(i);
+            if (c >= 0x80) break;
+            bytes[offset++] = (byte) c;
+        }
+
+        for (; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                bytes[offset++] = (byte) c;
+            } else if (c < 0x800) {
+                bytes[offset++] = (byte) (0xC0 | (c >> 6));
+                bytes[offset++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                    int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                    bytes[offset++] = (byte) (0xF0 | (codePoint >> 18));
+                    bytes[offset++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                    bytes[offset++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                    bytes[offset++] = (byte) (0x80 | (codePoint & 0x3F));
+                } else {
+                    bytes[offset++] = '?';
+                }
+            } else {
+                bytes[offset++] = (byte) (0xE0 | (c >> 12));
+                bytes[offset++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                bytes[offset++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+
+        return offset;
+    }
+
+    static void encode(String value, BinaryOutput output) throws IOException {
+        int length = value.length();
+
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                output.writeByte(c);
+            } else if (c < 0x800) {
+                output.writeByte(0xC0 | (c >> 6));
+                output.writeByte(0x80 | (c & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                    int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                    output.writeByte(0xF0 | (codePoint >> 18));
+                    output.writeByte(0x80 | ((codePoint >> 12) & 0x3F));
+                    output.writeByte(0x80 | ((codePoint >> 6) & 0x3F));
+                    output.writeByte(0x80 | (codePoint & 0x3F));
+                } else {
+                    output.writeByte('?');
+                }
+            } else {
+                output.writeByte(0xE0 | (c >> 12));
+                output.writeByte(0x80 | ((c >> 6) & 0x3F));
+                output.writeByte(0x80 | (c & 0x3F));
+            }
+        }
+    }
+
+}
@@ -0,0 +1,71 @@
+package net.gauntletmc.adventure.serializer.binary;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.NamedTextColor;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+class BatchTest {
+
+    private static final BinaryComponentSerializer TABLES = BinaryComponentSerializer.builder()
+            .dictionary(StringDictionary.MINECRAFT)
+            .styleTable(true)
+            .subtreeTable(true)
+            .build();
+
+    private static List<Component> tabList() {
+        List<Component> lines = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            lines.add(Component.text()
+                    .append(Component.text("[Member] ", NamedTextColor.GRAY))
+                    .append(Component.text("Player" + i, NamedTextColor.WHITE))
+                    .build());
+        }
+        return lines;
+    }
+
+    @Test
+    void testRoundTrip() throws IOException {
+        for (BinaryComponentSerializer serializer : List.of(BinaryComponentSerializer.INSTANCE, TABLES)) {
+            List<Component> lines = tabList();
+            Assertions.assertEquals(lines, serializer.deserializeAll(serializer.serializeAll(lines)));
+        }
+    }
+
+    @Test
+    void testEmpty() throws IOException {
+        Assertions.assertEquals(List.of(), TABLES.deserializeAll(TABLES.serializeAll(List.of())));
+    }
+
+    @Test
+    void testAdvancesBuffer() throws IOException {
+        byte[] bytes = TABLES.serializeAll(tabList());
+        ByteBuffer buffer = ByteBuffer.allocate(bytes.length + 1).put(bytes).put((byte) 42).flip();
+
+        Assertions.assertEquals(tabList(), TABLES.deserializeAll(buffer));
+        Assertions.assertEquals(42, buffer.get());
+    }
+
+    @Test
+    void testTruncated() throws IOException {
+        byte[] bytes = TABLES.serializeAll(tabList());
+        Assertions.assertThrows(EOFException.class, () -> TABLES.deserializeAll(Arrays.copyOf(bytes, bytes.length - 1)));
+    }
+
+    @Test
+    void testSharesTablesAcrossBatch() throws IOException {
+        int separate = 0;
+        for (Component line : tabList()) {
+            separate += TABLES.serialize(line).length;
+        }
+        Assertions.assertTrue(TABLES.serializeAll(tabList()).length < separate * 3 / 4);
+    }
+
+}
@@ -0,0 +1,81 @@
+package net.gauntletmc.adventure.serializer.binary;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.NamedTextColor;
+import net.kyori.adventure.text.format.Style;
+import net.kyori.adventure.text.format.TextColor;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+class ColorPaletteTest extends ComponentTest {
+    private static final BinaryComponentSerializer PLAIN = BinaryComponentSerializer.builder().build();
+    private static final BinaryComponentSerializer COLOR_PALETTE = BinaryComponentSerializer.builder()
+            .colorPalette(true)
+            .build();
+
+    // One character per component, cycling through a few hex colors like a repeated gradient does
+    private static Component gradient(String text, int colors) {
+        var builder = Component.text();
+        for (int i = 0; i < text.length(); i++) {
+            int step = i % colors;
+            builder.append(Component.text(String.valueOf(text.charAt(i)), TextColor.color(0x10 * step, 0x80, 0xFF - 0x10 * step)));
+        }
+        return builder.build();
+    }
+
+    @Test
+    void testNamedColors() throws IOException {
+        var builder = Component.text();
+        for (NamedTextColor color : BinaryComponentSerializerImpl.NAMED_COLORS) {
+            builder.append(Component.text(color.toString(), color));
+        }
+        Component component = builder.build();
+        this.test(component);
+
+        Component result = COLOR_PALETTE.deserialize(COLOR_PALETTE.serialize(component));
+        for (int i = 0; i < BinaryComponentSerializerImpl.NAMED_COLORS.length; i++) {
+            Assertions.assertSame(BinaryComponentSerializerImpl.NAMED_COLORS[i], result.children().get(i).color());
+        }
+    }
+
+    @Test
+    void testGradient() {
+        this.test(gradient("A rather long announcement in a repeating gradient", 6));
+    }
+
+    @Test
+    void testMixed() {
+        this.test(Component.text()
+                .content("root")
+                .color(TextColor.color(0x123456))
+                .append(Component.text("named", NamedTextColor.RED))
+                .append(Component.text("again", TextColor.color(0x123456)))
+                .append(Component.text("styled", Style.style().color(TextColor.color(0x654321)).build()))
+                .build());
+    }
+
+    @Test
+    void testSmallerThanPlain() throws IOException {
+        Component component = gradient("A rather long announcement in a repeating gradient", 6);
+        // Three bytes per color become one, besides the first use of each
+        Assertions.assertTrue(COLOR_PALETTE.serialize(component).length + 2 * 40 < PLAIN.serialize(component).length);
+
+        // The flags cost a byte, the named color saves two
+        Component named = Component.text("Hello", NamedTextColor.GOLD);
+        Assertions.assertEquals(PLAIN.serialize(named).length - 1, COLOR_PALETTE.serialize(named).length);
+    }
+
+    @Test
+    void testInvalidReference() throws IOException {
+        // The named color's index is the last byte, point it past the empty palette instead
+        byte[] bytes = COLOR_PALETTE.serialize(Component.text("a", NamedTextColor.GOLD));
+        byte[] corrupt = bytes.clone();
+        corrupt[corrupt.length - 1] = (byte) (BinaryComponentSerializerImpl.COLOR_LITERAL + 1);
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> COLOR_PALETTE.deserialize(corrupt));
+        Assertions.assertFalse(COLOR_PALETTE.validate(corrupt));
+    }
+
+}
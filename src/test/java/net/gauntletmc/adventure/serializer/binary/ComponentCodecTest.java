@@ -0,0 +1,142 @@
+package net.gauntletmc.adventure.serializer.binary;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.ComponentLike;
+import net.kyori.adventure.text.event.HoverEvent;
+import net.kyori.adventure.text.format.NamedTextColor;
+import net.kyori.adventure.text.format.Style;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+class ComponentCodecTest extends ComponentTest {
+
+    // A placeholder resolved per viewer, not a component type adventure knows
+    private record Placeholder(String name, int fallback, Style style, List<Component> children) implements Component {
+        private Placeholder(String name, int fallback) {
+            this(name, fallback, Style.empty(), List.of());
+        }
+
+        @Override
+        public Component children(List<? extends ComponentLike> children) {
+            List<Component> components = new ArrayList<>();
+            for (ComponentLike child : children) {
+                components.add(child.asComponent());
+            }
+            return new Placeholder(this.name, this.fallback, this.style, List.copyOf(components));
+        }
+
+        @Override
+        public Component style(Style style) {
+            return new Placeholder(this.name, this.fallback, style, this.children);
+        }
+    }
+
+    private static final class PlaceholderCodec implements ComponentCodec<Placeholder> {
+        private final int id;
+
+        private PlaceholderCodec(int id) {
+            this.id = id;
+        }
+
+        @Override
+        public int id() {
+            return this.id;
+        }
+
+        @Override
+        public Class<Placeholder> type() {
+            return Placeholder.class;
+        }
+
+        @Override
+        public void write(Placeholder value, DataOutput output) throws IOException {
+            output.writeUTF(value.name());
+            output.writeInt(value.fallback());
+        }
+
+        @Override
+        public Placeholder read(DataInput input) throws IOException {
+            return new Placeholder(input.readUTF(), input.readInt());
+        }
+    }
+
+    private static final List<BinaryComponentSerializer> SERIALIZERS = List.of(
+            BinaryComponentSerializer.builder().codec(new PlaceholderCodec(7)).build(),
+            BinaryComponentSerializer.builder()
+                    .codec(new PlaceholderCodec(7))
+                    .dictionary(StringDictionary.MINECRAFT)
+                    .styleTable(true)
+                    .subtreeTable(true)
+                    .styleDelta(true)
+                    .colorPalette(true)
+                    .build()
+    );
+
+    private static Component message() {
+        Component balance = new Placeholder("balance", 0)
+                .style(Style.style(NamedTextColor.GOLD))
+                .children(List.of(Component.text(" coins")));
+
+        return Component.text()
+                .content("You have ")
+                .color(NamedTextColor.GRAY)
+                .append(balance)
+                .append(Component.text(", ", NamedTextColor.DARK_GRAY))
+                .append(Component.translatable("chat.type.text", new Placeholder("player", -1), Component.text("hi")))
+                .append(Component.text("hover").hoverEvent(HoverEvent.showText(balance)))
+                .build();
+    }
+
+    @Test
+    void testRoundTrip() {
+        for (BinaryComponentSerializer serializer : SERIALIZERS) {
+            this.test(serializer, message());
+            this.test(serializer, new Placeholder("root", 42));
+            // Modified UTF-8 and a content length taking more than one byte
+            this.test(serializer, new Placeholder("ü€\0" + "x".repeat(300), 1).children(List.of(Component.text("after"))));
+        }
+    }
+
+    @Test
+    void testWithoutCodec() throws IOException {
+        byte[] bytes = SERIALIZERS.get(0).serialize(message());
+
+        // The content is skipped by its length, building the component needs the codec
+        BinaryComponentSerializer plain = BinaryComponentSerializer.INSTANCE;
+        Assertions.assertTrue(plain.validate(bytes));
+        Assertions.assertEquals("You have  coins, chat.type.texthover", plain.plainText(bytes));
+        Assertions.assertThrows(IllegalStateException.class, () -> plain.deserialize(bytes));
+
+        BinaryComponentSerializer other = BinaryComponentSerializer.builder().codec(new PlaceholderCodec(8)).build();
+        Assertions.assertThrows(IllegalStateException.class, () -> other.deserialize(bytes));
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> plain.serialize(message()));
+    }
+
+    @Test
+    void testView() throws IOException {
+        BinaryComponentSerializer serializer = SERIALIZERS.get(0);
+        EncodedComponentView view = serializer.view(serializer.serialize(message())).child(0);
+
+        Assertions.assertEquals(Placeholder.class, view.type());
+        Assertions.assertTrue(view.hasStyle());
+        Assertions.assertEquals(1, view.childCount());
+        Assertions.assertEquals(" coins", view.child(0).content());
+        Assertions.assertThrows(IllegalStateException.class, view::content);
+    }
+
+    @Test
+    void testDuplicateId() {
+        var builder = BinaryComponentSerializer.builder()
+                .codec(new PlaceholderCodec(7))
+                .codec(new PlaceholderCodec(7));
+        Assertions.assertThrows(IllegalArgumentException.class, builder::build);
+    }
+
+}
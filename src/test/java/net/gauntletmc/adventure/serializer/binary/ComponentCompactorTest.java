@@ -0,0 +1,207 @@
+package net.gauntletmc.adventure.serializer.binary;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.TextComponent;
+import net.kyori.adventure.text.TranslatableComponent;
+import net.kyori.adventure.text.event.HoverEvent;
+import net.kyori.adventure.text.format.NamedTextColor;
+import net.kyori.adventure.text.format.Style;
+import net.kyori.adventure.text.format.TextDecoration;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+class ComponentCompactorTest {
+
+    private static final BinaryComponentSerializer PLAIN = BinaryComponentSerializer.builder().build();
+    private static final BinaryComponentSerializer COMPACT = BinaryComponentSerializer.builder().compact(true).build();
+
+    // A piece of rendered text, with its style apart from the hover text and the hover text rendered on its own
+    private record Run(String text, Style style, List<Run> hover) {}
+
+    private static List<Run> render(Component component) {
+        List<Run> runs = new ArrayList<>();
+        render(component, Style.empty(), runs);
+        return runs;
+    }
+
+    private static void render(Component component, Style inherited, List<Run> runs) {
+        Style effective = inherited.merge(component.style());
+        Style style = effective;
+        List<Run> hover = List.of();
+        if (effective.hoverEvent() != null && effective.hoverEvent().value() instanceof Component text) {
+            hover = render(text);
+            style = effective.hoverEvent(null);
+        }
+
+        if (component instanceof TextComponent text) {
+            add(runs, new Run(text.content(), style, hover));
+        } else if (component instanceof TranslatableComponent translatable) {
+            runs.add(new Run("<" + translatable.key() + ">", style, hover));
+            for (Component argument : translatable.args()) {
+                runs.add(new Run("<argument>", Style.empty(), render(argument)));
+            }
+        }
+
+        for (Component child : component.children()) {
+            render(child, effective, runs);
+        }
+    }
+
+    private static void add(List<Run> runs, Run run) {
+        if (run.text().isEmpty()) return;
+
+        int last = runs.size() - 1;
+        if (last >= 0 && runs.get(last).style().equals(run.style()) && runs.get(last).hover().equals(run.hover())
+                && !runs.get(last).text().startsWith("<")) {
+            runs.set(last, new Run(runs.get(last).text() + run.text(), run.style(), run.hover()));
+        } else {
+            runs.add(run);
+        }
+    }
+
+    private static int nodes(Component component) {
+        int nodes = 1;
+        if (component instanceof TranslatableComponent translatable) {
+            for (Component argument : translatable.args()) {
+                nodes += nodes(argument);
+            }
+        }
+        if (component.style().hoverEvent() != null && component.style().hoverEvent().value() instanceof Component text) {
+            nodes += nodes(text);
+        }
+        for (Component child : component.children()) {
+            nodes += nodes(child);
+        }
+        return nodes;
+    }
+
+    private static void assertRendersSame(Component expected, Component actual) {
+        Assertions.assertEquals(render(expected), render(actual));
+    }
+
+    // Like a formatting pipeline emits it: every fragment wrapped, empty placeholders, styles repeated
+    private static Component generated() {
+        return Component.text()
+                .append(Component.text()
+                        .color(NamedTextColor.GRAY)
+                        .append(Component.text("[", NamedTextColor.GRAY))
+                        .append(Component.text("Guide"))
+                        // Component.text("") is the empty singleton, which builders leave out
+                        .append(Component.text("", NamedTextColor.GRAY))
+                        .append(Component.text("]"))
+                        .build())
+                .append(Component.text(" "))
+                .append(Component.text()
+                        .append(Component.text()
+                                .append(Component.text("Player", NamedTextColor.GOLD))
+                                .build())
+                        .build())
+                .append(Component.text(": ", NamedTextColor.DARK_GRAY))
+                .append(Component.text()
+                        .content("hello")
+                        .append(Component.text(" "))
+                        .append(Component.text("world"))
+                        .append(Component.text("!", Style.style().decoration(TextDecoration.BOLD, TextDecoration.State.TRUE).build()))
+                        .build())
+                .build();
+    }
+
+    @Test
+    void testGenerated() throws IOException {
+        Component component = generated();
+        Component compacted = ComponentCompactor.compact(component);
+
+        Component expected = Component.text()
+                .append(Component.text("[Guide]", NamedTextColor.GRAY))
+                .append(Component.text(" "))
+                .append(Component.text("Player", NamedTextColor.GOLD))
+                .append(Component.text(": ", NamedTextColor.DARK_GRAY))
+                .append(Component.text()
+                        .content("hello world")
+                        .append(Component.text("!", Style.style().decoration(TextDecoration.BOLD, TextDecoration.State.TRUE).build()))
+                        .build())
+                .build();
+
+        assertRendersSame(component, compacted);
+        Assertions.assertEquals(15, nodes(component));
+        Assertions.assertEquals(expected, compacted);
+
+        byte[] bytes = COMPACT.serialize(component);
+        Assertions.assertTrue(bytes.length < PLAIN.serialize(component).length);
+        Assertions.assertEquals(compacted, COMPACT.deserialize(bytes));
+        Assertions.assertEquals(bytes.length, COMPACT.serializedSize(component));
+    }
+
+    @Test
+    void testHoistsStyledWrapper() {
+        Component component = Component.text()
+                .color(NamedTextColor.RED)
+                .append(Component.text("only", Style.style().decoration(TextDecoration.BOLD, TextDecoration.State.TRUE).build()))
+                .build();
+        Component compacted = ComponentCompactor.compact(component);
+
+        assertRendersSame(component, compacted);
+        Assertions.assertEquals(1, nodes(compacted));
+        Assertions.assertEquals(NamedTextColor.RED, compacted.style().color());
+    }
+
+    @Test
+    void testKeepsDifferentStyles() {
+        // The second child repeats the inherited color, the third one overrides it
+        Component component = Component.text()
+                .content("a")
+                .color(NamedTextColor.RED)
+                .append(Component.text("b", NamedTextColor.RED))
+                .append(Component.text("c", NamedTextColor.BLUE))
+                .append(Component.text("d"))
+                .build();
+        Component compacted = ComponentCompactor.compact(component);
+
+        assertRendersSame(component, compacted);
+        Assertions.assertEquals("ab", ((TextComponent) compacted).content());
+        Assertions.assertEquals(2, compacted.children().size());
+    }
+
+    @Test
+    void testNested() {
+        Component hover = Component.text()
+                .append(Component.text("Click"))
+                .append(Component.text(" to "))
+                .append(Component.text("join"))
+                .build();
+        Component component = Component.translatable()
+                .key("chat.type.announcement")
+                .args(List.of(Component.text().append(Component.text("Server")).build(), Component.text("hi")))
+                .hoverEvent(HoverEvent.showText(hover))
+                .build();
+        Component compacted = ComponentCompactor.compact(component);
+
+        assertRendersSame(component, compacted);
+        Assertions.assertEquals(4, nodes(compacted));
+        Assertions.assertEquals(Component.text("Click to join"), compacted.style().hoverEvent().value());
+    }
+
+    @Test
+    void testUnchangedInstance() {
+        Component component = Component.text()
+                .content("Already")
+                .color(NamedTextColor.GREEN)
+                .append(Component.text(" compact", NamedTextColor.YELLOW))
+                .build();
+        Assertions.assertSame(component, ComponentCompactor.compact(component));
+    }
+
+    @Test
+    void testDeep() {
+        Component component = Component.text("leaf");
+        for (int i = 0; i < 100_000; i++) {
+            component = Component.text().append(component).build();
+        }
+        Assertions.assertEquals(Component.text("leaf"), ComponentCompactor.compact(component));
+    }
+
+}
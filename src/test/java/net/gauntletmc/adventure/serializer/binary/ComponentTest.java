@@ -3,19 +3,109 @@ package net.gauntletmc.adventure.serializer.binary;
 import net.kyori.adventure.text.Component;
 import org.junit.jupiter.api.Assertions;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
 
 public class ComponentTest {
 
+    private static final List<BinaryComponentSerializer> SERIALIZERS = List.of(
+            BinaryComponentSerializer.INSTANCE,
+            BinaryComponentSerializer.builder().stringTable(true).build(),
+            BinaryComponentSerializer.builder().styleTable(true).build(),
+            BinaryComponentSerializer.builder().dictionary(StringDictionary.MINECRAFT).build(),
+            BinaryComponentSerializer.builder().subtreeTable(true).build(),
+            BinaryComponentSerializer.builder()
+                    .dictionary(StringDictionary.MINECRAFT)
+                    .styleTable(true)
+                    .subtreeTable(true)
+                    .build(),
+            BinaryComponentSerializer.builder().styleDelta(true).build(),
+            BinaryComponentSerializer.builder()
+                    .dictionary(StringDictionary.MINECRAFT)
+                    .styleTable(true)
+                    .subtreeTable(true)
+                    .styleDelta(true)
+                    .build(),
+            BinaryComponentSerializer.builder().colorPalette(true).build(),
+            BinaryComponentSerializer.builder()
+                    .styleTable(true)
+                    .subtreeTable(true)
+                    .styleDelta(true)
+                    .colorPalette(true)
+                    .build(),
+            BinaryComponentSerializer.builder().encodeCache(64 * 1024).build(),
+            BinaryComponentSerializer.builder().decodeCache(64 * 1024).build(),
+            BinaryComponentSerializer.builder()
+                    .stringTable(true)
+                    .decoderLimits(DecoderLimits.UNLIMITED.withMaxBytes(1 << 20).withMaxStringLength(1 << 16).withMaxDepth(64))
+                    .build()
+    );
+
     public void test(Component component) {
+        for (BinaryComponentSerializer serializer : SERIALIZERS) {
+            test(serializer, component);
+        }
+    }
+
+    public void test(BinaryComponentSerializer serializer, Component component) {
         try {
-            byte[] serialized = BinaryComponentSerializer.INSTANCE.serialize(component);
-            Component result = BinaryComponentSerializer.INSTANCE.deserialize(serialized);
+            byte[] serialized = serializer.serialize(component);
+            Component result = serializer.deserialize(serialized);
 
             Assertions.assertEquals(component, result);
+
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            serializer.serializeComponent(component, new DataOutputStream(baos));
+            Assertions.assertArrayEquals(baos.toByteArray(), serialized);
+            Assertions.assertEquals(baos.size(), serializer.serializedSize(component));
+
+            DataInputStream dis = new DataInputStream(new ByteArrayInputStream(serialized));
+            Assertions.assertEquals(component, serializer.deserializeComponent(dis));
+            Assertions.assertEquals(-1, dis.read());
+
+            testBuffer(serializer, component, serialized, ByteBuffer.allocate(serialized.length));
+            testBuffer(serializer, component, serialized, ByteBuffer.allocateDirect(serialized.length));
+
+            testStreaming(serializer, component, serialized);
+
+            RebuildingVisitor visitor = new RebuildingVisitor();
+            serializer.visit(serialized, visitor);
+            Assertions.assertEquals(component, visitor.result());
+
+            Assertions.assertTrue(serializer.validate(serialized));
         } catch(IOException e) {
             throw new RuntimeException(e);
         }
     }
 
+    private void testStreaming(BinaryComponentSerializer serializer, Component component, byte[] serialized) throws IOException {
+        StreamingComponentDecoder decoder = serializer.streamingDecoder();
+
+        // One byte at a time stops the decoder at every possible position
+        for (int i = 0; i < serialized.length; i++) {
+            Assertions.assertNull(decoder.poll());
+            decoder.feed(serialized, i, 1);
+        }
+
+        Assertions.assertEquals(component, decoder.poll());
+        Assertions.assertFalse(decoder.hasPartial());
+    }
+
+    private void testBuffer(BinaryComponentSerializer serializer, Component component, byte[] serialized, ByteBuffer buffer) throws IOException {
+        serializer.serialize(component, buffer);
+        Assertions.assertFalse(buffer.hasRemaining());
+
+        buffer.flip();
+        Assertions.assertEquals(ByteBuffer.wrap(serialized), buffer);
+
+        Component result = serializer.deserialize(buffer);
+        Assertions.assertEquals(component, result);
+        Assertions.assertFalse(buffer.hasRemaining());
+    }
+
 }
@@ -0,0 +1,142 @@
+package net.gauntletmc.adventure.serializer.binary;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.NamedTextColor;
+import net.kyori.adventure.text.format.TextDecoration;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+class CompressionTest {
+
+    private static final BinaryComponentSerializer PLAIN = BinaryComponentSerializer.builder().build();
+    private static final BinaryComponentSerializer COMPRESSED = BinaryComponentSerializer.builder().compression(128).build();
+
+    private static Component lore(int seed) {
+        var builder = Component.text().content("Sword of the " + seed);
+        for (int i = 0; i < 20; i++) {
+            builder.append(Component.text()
+                    .content("Deals " + (seed + i) + " extra damage to undead enemies")
+                    .color(NamedTextColor.GRAY)
+                    .decoration(TextDecoration.ITALIC, false)
+                    .build());
+        }
+        return builder.build();
+    }
+
+    @Test
+    void testSmallPayloadsStayUncompressed() throws IOException {
+        Component chat = Component.text("Hello there", NamedTextColor.YELLOW);
+        Assertions.assertArrayEquals(PLAIN.serialize(chat), COMPRESSED.serialize(chat));
+    }
+
+    @Test
+    void testRoundTrip() throws IOException {
+        Component lore = lore(1);
+        byte[] bytes = COMPRESSED.serialize(lore);
+
+        Assertions.assertEquals(BinaryComponentSerializerImpl.VERSION_COMPRESSED, bytes[0]);
+        Assertions.assertTrue(bytes.length * 3 < PLAIN.serialize(lore).length);
+        Assertions.assertEquals(bytes.length, COMPRESSED.serializedSize(lore));
+
+        // Decoders recognize the frame without being configured for compression
+        Assertions.assertEquals(lore, PLAIN.deserialize(bytes));
+        Assertions.assertEquals(lore, COMPRESSED.deserializeComponent(new DataInputStream(new ByteArrayInputStream(bytes))));
+        Assertions.assertEquals(PLAIN.plainText(PLAIN.serialize(lore)), COMPRESSED.plainText(bytes));
+        Assertions.assertEquals(20, COMPRESSED.view(bytes).childCount());
+        Assertions.assertTrue(COMPRESSED.validate(bytes));
+
+        RebuildingVisitor visitor = new RebuildingVisitor();
+        COMPRESSED.visit(bytes, visitor);
+        Assertions.assertEquals(lore, visitor.result());
+    }
+
+    @Test
+    void testSerializeAll() throws IOException {
+        List<Component> values = List.of(lore(1), Component.text("short"), lore(2));
+        byte[] bytes = COMPRESSED.serializeAll(values);
+
+        Assertions.assertEquals(BinaryComponentSerializerImpl.VERSION_COMPRESSED, bytes[0]);
+        Assertions.assertEquals(values, COMPRESSED.deserializeAll(bytes));
+    }
+
+    @Test
+    void testStreaming() throws IOException {
+        byte[] first = COMPRESSED.serialize(lore(1));
+        byte[] second = COMPRESSED.serialize(Component.text("short"));
+
+        StreamingComponentDecoder decoder = COMPRESSED.streamingDecoder();
+        for (byte[] bytes : List.of(first, second)) {
+            for (byte b : bytes) {
+                decoder.feed(new byte[] { b }, 0, 1);
+            }
+        }
+
+        Assertions.assertEquals(lore(1), decoder.poll());
+        Assertions.assertEquals(Component.text("short"), decoder.poll());
+        Assertions.assertFalse(decoder.hasPartial());
+    }
+
+    @Test
+    void testDictionary() throws IOException {
+        List<byte[]> samples = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            samples.add(PLAIN.serialize(lore(i * 7)));
+        }
+        CompressionDictionary dictionary = CompressionDictionary.train(1, samples, 4096);
+        Assertions.assertTrue(dictionary.size() <= 4096);
+
+        BinaryComponentSerializer primed = BinaryComponentSerializer.builder()
+                .compression(128)
+                .compressionDictionary(dictionary)
+                .build();
+
+        Component lore = lore(1000);
+        byte[] bytes = primed.serialize(lore);
+        Assertions.assertTrue(bytes.length < COMPRESSED.serialize(lore).length);
+        Assertions.assertEquals(lore, primed.deserialize(bytes));
+
+        // Decoders need the same dictionary
+        Assertions.assertThrows(IllegalStateException.class, () -> COMPRESSED.deserialize(bytes));
+        Assertions.assertFalse(COMPRESSED.validate(bytes));
+    }
+
+    @Test
+    void testLimits() throws IOException {
+        byte[] bytes = COMPRESSED.serialize(lore(1));
+
+        // Small enough compressed, but inflating it would exceed the limit
+        BinaryComponentSerializer limited = BinaryComponentSerializer.builder()
+                .decoderLimits(DecoderLimits.UNLIMITED.withMaxBytes(bytes.length + 16))
+                .build();
+        Assertions.assertThrows(IllegalStateException.class, () -> limited.deserialize(bytes));
+        Assertions.assertFalse(limited.validate(bytes));
+    }
+
+    @Test
+    void testCorruptFrame() throws IOException {
+        byte[] bytes = COMPRESSED.serialize(lore(1));
+
+        byte[] corrupt = bytes.clone();
+        corrupt[corrupt.length / 2] ^= 0x55;
+        Assertions.assertFalse(COMPRESSED.validate(corrupt));
+
+        byte[] truncated = Arrays.copyOf(bytes, bytes.length - 1);
+        Assertions.assertFalse(COMPRESSED.validate(truncated));
+        Assertions.assertThrows(IOException.class, () -> COMPRESSED.deserialize(truncated));
+    }
+
+    @Test
+    void testInvalidDictionary() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> CompressionDictionary.of(0, new byte[] { 1 }));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> CompressionDictionary.of(1, new byte[CompressionDictionary.MAX_SIZE + 1]));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> CompressionDictionary.train(1, List.of(new byte[] { 1, 2, 3 }), 1024));
+    }
+
+}
@@ -0,0 +1,72 @@
+package net.gauntletmc.adventure.serializer.binary;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.NamedTextColor;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+class DecodeCacheTest {
+
+    private static CachingBinaryComponentSerializer serializer(long maxBytes) {
+        return (CachingBinaryComponentSerializer) BinaryComponentSerializer.builder().decodeCache(maxBytes).build();
+    }
+
+    @Test
+    void testReturnsSameInstance() throws IOException {
+        CachingBinaryComponentSerializer serializer = serializer(64 * 1024);
+        Component component = Component.text("Server restarting in 5 minutes", NamedTextColor.RED);
+        byte[] bytes = serializer.serialize(component);
+
+        Component first = serializer.deserialize(bytes);
+        Component second = serializer.deserialize(bytes.clone());
+
+        Assertions.assertEquals(component, first);
+        Assertions.assertSame(first, second);
+
+        CacheStats stats = serializer.decodeCacheStats();
+        Assertions.assertEquals(1, stats.hits());
+        Assertions.assertEquals(1, stats.misses());
+        Assertions.assertEquals(bytes.length, stats.bytes());
+    }
+
+    @Test
+    void testComparesContent() throws IOException {
+        CachingBinaryComponentSerializer serializer = serializer(64 * 1024);
+        byte[] bytes = serializer.serialize(Component.text("aaaa"));
+
+        Component first = serializer.deserialize(bytes);
+        // Last character of the content, the payload ends with the children/style varint
+        bytes[bytes.length - 2] = 'b';
+        Component second = serializer.deserialize(bytes);
+
+        Assertions.assertEquals(Component.text("aaaa"), first);
+        Assertions.assertEquals(Component.text("aaab"), second);
+    }
+
+    @Test
+    void testEvictsOverBudget() throws IOException {
+        CachingBinaryComponentSerializer serializer = serializer(1024);
+
+        for (int i = 0; i < 1000; i++) {
+            serializer.deserialize(serializer.serialize(Component.text("Line " + i)));
+        }
+
+        CacheStats stats = serializer.decodeCacheStats();
+        Assertions.assertTrue(stats.bytes() <= 1024);
+        Assertions.assertTrue(stats.evictions() > 0);
+    }
+
+    @Test
+    void testPayloadHashUsesEveryByte() {
+        byte[] bytes = new byte[37];
+        int hash = PayloadKey.hash(bytes);
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = 1;
+            Assertions.assertNotEquals(hash, PayloadKey.hash(bytes));
+            bytes[i] = 0;
+        }
+    }
+
+}
@@ -0,0 +1,93 @@
+package net.gauntletmc.adventure.serializer.binary;
+
+import net.kyori.adventure.text.Component;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+
+class DecoderLimitsTest {
+
+    // Version 1, a text component claiming a string of Integer.MAX_VALUE bytes
+    private static final byte[] HUGE_STRING = { 1, 0, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07 };
+
+    private static BinaryComponentSerializer limited(DecoderLimits limits) {
+        return BinaryComponentSerializer.builder().decoderLimits(limits).build();
+    }
+
+    private static Component text(int length) {
+        return Component.text("x".repeat(length));
+    }
+
+    @Test
+    void testMaxBytes() throws IOException {
+        BinaryComponentSerializer limited = limited(DecoderLimits.UNLIMITED.withMaxBytes(16));
+
+        byte[] small = limited.serialize(text(10));
+        Assertions.assertEquals(text(10), limited.deserialize(small));
+
+        byte[] large = limited.serialize(text(20));
+        Assertions.assertThrows(IllegalStateException.class, () -> limited.deserialize(large));
+        Assertions.assertThrows(IllegalStateException.class, () -> limited.deserializeComponent(new DataInputStream(new ByteArrayInputStream(large))));
+        Assertions.assertFalse(limited.validate(large));
+
+        StreamingComponentDecoder decoder = limited.streamingDecoder();
+        Assertions.assertThrows(IllegalStateException.class, () -> decoder.feed(large, 0, large.length));
+    }
+
+    @Test
+    void testMaxStringLength() throws IOException {
+        BinaryComponentSerializer limited = limited(DecoderLimits.UNLIMITED.withMaxStringLength(8));
+
+        Assertions.assertEquals(text(8), limited.deserialize(limited.serialize(text(8))));
+        Assertions.assertThrows(IllegalStateException.class, () -> limited.deserialize(limited.serialize(text(9))));
+
+        // Fails on the length alone, neither allocating nor waiting for the string
+        Assertions.assertThrows(IllegalStateException.class, () -> limited.deserializeComponent(new DataInputStream(new ByteArrayInputStream(HUGE_STRING))));
+        Assertions.assertThrows(IllegalStateException.class, () -> limited.streamingDecoder().feed(HUGE_STRING, 0, HUGE_STRING.length));
+        Assertions.assertFalse(limited.validate(HUGE_STRING));
+    }
+
+    @Test
+    void testMaxChildren() throws IOException {
+        BinaryComponentSerializer limited = limited(DecoderLimits.UNLIMITED.withMaxChildren(2));
+
+        Component two = Component.text().content("a").append(Component.text("b"), Component.text("c")).build();
+        Assertions.assertEquals(two, limited.deserialize(limited.serialize(two)));
+
+        Component three = two.append(Component.text("d"));
+        Assertions.assertThrows(IllegalStateException.class, () -> limited.deserialize(limited.serialize(three)));
+
+        Component arguments = Component.translatable("key", Component.text("a"), Component.text("b"), Component.text("c"));
+        Assertions.assertThrows(IllegalStateException.class, () -> limited.deserialize(limited.serialize(arguments)));
+        Assertions.assertFalse(limited.validate(limited.serialize(arguments)));
+    }
+
+    @Test
+    void testStricterLimitWins() throws IOException {
+        Component nested = Component.text("a").append(Component.text("b").append(Component.text("c")));
+        byte[] bytes = BinaryComponentSerializer.INSTANCE.serialize(nested);
+
+        BinaryComponentSerializer builderLimit = BinaryComponentSerializer.builder()
+                .maxDepth(2)
+                .decoderLimits(DecoderLimits.UNLIMITED.withMaxDepth(10))
+                .build();
+        Assertions.assertThrows(IllegalStateException.class, () -> builderLimit.deserialize(bytes));
+
+        BinaryComponentSerializer decoderLimit = BinaryComponentSerializer.builder()
+                .maxDepth(10)
+                .decoderLimits(DecoderLimits.UNLIMITED.withMaxDepth(2))
+                .build();
+        Assertions.assertThrows(IllegalStateException.class, () -> decoderLimit.deserialize(bytes));
+        Assertions.assertArrayEquals(bytes, decoderLimit.serialize(nested));
+    }
+
+    @Test
+    void testInvalidLimits() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> DecoderLimits.UNLIMITED.withMaxBytes(0));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> DecoderLimits.UNLIMITED.withMaxDepth(-1));
+    }
+
+}
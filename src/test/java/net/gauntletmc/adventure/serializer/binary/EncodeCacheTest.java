@@ -0,0 +1,75 @@
+package net.gauntletmc.adventure.serializer.binary;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.NamedTextColor;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+class EncodeCacheTest {
+
+    private static CachingBinaryComponentSerializer serializer(long maxBytes) {
+        return (CachingBinaryComponentSerializer) BinaryComponentSerializer.builder().encodeCache(maxBytes).build();
+    }
+
+    @Test
+    void testHitsOnSameInstance() throws IOException {
+        CachingBinaryComponentSerializer serializer = serializer(64 * 1024);
+        Component component = Component.text("Welcome to the server", NamedTextColor.GOLD);
+
+        byte[] first = serializer.serialize(component);
+        byte[] second = serializer.serialize(component);
+
+        Assertions.assertArrayEquals(first, second);
+        Assertions.assertNotSame(first, second);
+        Assertions.assertArrayEquals(BinaryComponentSerializer.INSTANCE.serialize(component), first);
+
+        CacheStats stats = serializer.encodeCacheStats();
+        Assertions.assertEquals(1, stats.hits());
+        Assertions.assertEquals(1, stats.misses());
+        Assertions.assertEquals(1, stats.entries());
+        Assertions.assertEquals(first.length, stats.bytes());
+    }
+
+    @Test
+    void testComparesByIdentity() throws IOException {
+        CachingBinaryComponentSerializer serializer = serializer(64 * 1024);
+
+        serializer.serialize(Component.text("MOTD"));
+        serializer.serialize(Component.text("MOTD"));
+
+        Assertions.assertEquals(0, serializer.encodeCacheStats().hits());
+        Assertions.assertEquals(2, serializer.encodeCacheStats().misses());
+    }
+
+    @Test
+    void testCallerCannotCorruptCache() throws IOException {
+        CachingBinaryComponentSerializer serializer = serializer(64 * 1024);
+        Component component = Component.text("Scoreboard");
+
+        byte[] first = serializer.serialize(component);
+        first[first.length - 1] ^= 1;
+
+        Assertions.assertEquals(component, serializer.deserialize(serializer.serialize(component)));
+    }
+
+    @Test
+    void testEvictsOverBudget() throws IOException {
+        CachingBinaryComponentSerializer serializer = serializer(1024);
+
+        for (int i = 0; i < 1000; i++) {
+            serializer.serialize(Component.text("Line " + i));
+        }
+
+        CacheStats stats = serializer.encodeCacheStats();
+        Assertions.assertTrue(stats.bytes() <= 1024);
+        Assertions.assertTrue(stats.evictions() > 0);
+    }
+
+    @Test
+    void testDisabledByDefault() {
+        Assertions.assertFalse(BinaryComponentSerializer.builder().build() instanceof CachingBinaryComponentSerializer);
+    }
+
+}
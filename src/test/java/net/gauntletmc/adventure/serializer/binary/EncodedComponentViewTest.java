@@ -0,0 +1,128 @@
+package net.gauntletmc.adventure.serializer.binary;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.KeybindComponent;
+import net.kyori.adventure.text.TextComponent;
+import net.kyori.adventure.text.TranslatableComponent;
+import net.kyori.adventure.text.event.HoverEvent;
+import net.kyori.adventure.text.format.NamedTextColor;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+
+class EncodedComponentViewTest {
+
+    private static final List<BinaryComponentSerializer> SERIALIZERS = List.of(
+            BinaryComponentSerializer.INSTANCE,
+            BinaryComponentSerializer.builder().stringTable(true).build(),
+            BinaryComponentSerializer.builder()
+                    .dictionary(StringDictionary.MINECRAFT)
+                    .styleTable(true)
+                    .subtreeTable(true)
+                    .build()
+    );
+
+    private static final Component LINE = Component.text("Damage: ", NamedTextColor.GRAY)
+            .append(Component.text("12", NamedTextColor.RED));
+
+    private static Component tooltip() {
+        return Component.text()
+                .content("Sword")
+                .append(Component.text("Legendary", NamedTextColor.GOLD).hoverEvent(HoverEvent.showText(LINE)))
+                .append(LINE)
+                .append(Component.translatable("item.minecraft.diamond_sword"))
+                .append(LINE)
+                .append(Component.keybind("key.use"))
+                .build();
+    }
+
+    private static void assertTooltip(EncodedComponentView root) throws IOException {
+        Assertions.assertEquals(TextComponent.class, root.type());
+        Assertions.assertEquals("Sword", root.content());
+        Assertions.assertFalse(root.hasStyle());
+        Assertions.assertEquals(5, root.childCount());
+
+        // Out of order, so the children are reached both forwards and backwards
+        EncodedComponentView keybind = root.child(4);
+        Assertions.assertEquals(KeybindComponent.class, keybind.type());
+        Assertions.assertEquals("key.use", keybind.content());
+
+        for (int i : new int[] { 1, 3 }) {
+            EncodedComponentView line = root.child(i);
+            Assertions.assertEquals("Damage: ", line.content());
+            Assertions.assertTrue(line.hasStyle());
+            Assertions.assertEquals(1, line.childCount());
+            Assertions.assertEquals("12", line.child(0).content());
+        }
+
+        EncodedComponentView translatable = root.child(2);
+        Assertions.assertEquals(TranslatableComponent.class, translatable.type());
+        Assertions.assertEquals("item.minecraft.diamond_sword", translatable.content());
+        Assertions.assertEquals(0, translatable.childCount());
+
+        EncodedComponentView legendary = root.child(0);
+        Assertions.assertEquals("Legendary", legendary.content());
+        Assertions.assertTrue(legendary.hasStyle());
+    }
+
+    @Test
+    void testLazy() throws IOException {
+        for (BinaryComponentSerializer serializer : SERIALIZERS) {
+            assertTooltip(serializer.view(serializer.serialize(tooltip())));
+        }
+    }
+
+    @Test
+    void testIndexed() throws IOException {
+        for (BinaryComponentSerializer serializer : SERIALIZERS) {
+            assertTooltip(serializer.view(serializer.serialize(tooltip())).index());
+
+            EncodedComponentView root = serializer.view(serializer.serialize(tooltip()));
+            Assertions.assertEquals("Legendary", root.child(0).content());
+            assertTooltip(root.index());
+        }
+    }
+
+    @Test
+    void testRootRepeatingBeforeData() throws IOException {
+        // Arguments and separators are written before the root's data, repeats in them refer back to the tables
+        List<Component> roots = List.of(
+                Component.translatable("k", Component.text("a", NamedTextColor.RED), Component.text("b", NamedTextColor.RED)),
+                Component.translatable("k", Component.text("same"), Component.text("same")).append(Component.text("c")),
+                Component.selector("@a", Component.text("same", NamedTextColor.RED)).append(Component.text("same", NamedTextColor.RED)),
+                Component.score("same", "same")
+        );
+        for (BinaryComponentSerializer serializer : SERIALIZERS) {
+            for (Component component : roots) {
+                byte[] bytes = serializer.serialize(component);
+                EncodedComponentView root = serializer.view(bytes);
+                Assertions.assertFalse(root.hasStyle());
+                Assertions.assertEquals(component.children().size(), root.childCount());
+                if (!component.children().isEmpty()) {
+                    Assertions.assertEquals(((TextComponent) component.children().get(0)).content(), root.child(0).content());
+                }
+            }
+        }
+    }
+
+    @Test
+    void testBufferUnchanged() throws IOException {
+        byte[] bytes = BinaryComponentSerializer.INSTANCE.serialize(tooltip());
+        ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length + 2).put((byte) 1).put(bytes).put((byte) 2).flip();
+        buffer.position(1);
+
+        assertTooltip(BinaryComponentSerializer.INSTANCE.view(buffer));
+        Assertions.assertEquals(1, buffer.position());
+    }
+
+    @Test
+    void testChildOutOfBounds() throws IOException {
+        EncodedComponentView root = BinaryComponentSerializer.INSTANCE.view(BinaryComponentSerializer.INSTANCE.serialize(tooltip()));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> root.child(5));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> root.child(-1));
+    }
+
+}
@@ -26,15 +26,14 @@ public class IntSerializeTest {
     }
 
     public void signedTestForInt(int i) throws IOException {
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        DataOutputStream out = new DataOutputStream(baos);
+        ScratchBuffer out = new ScratchBuffer();
 
         BinaryComponentSerializerImpl.serializeSignedInt(i, out);
 
-        ByteArrayInputStream bais = new ByteArrayInputStream(baos.toByteArray());
+        ByteArrayInputStream bais = new ByteArrayInputStream(out.toByteArray());
         DataInputStream in = new DataInputStream(bais);
 
-        Assertions.assertEquals(i, BinaryComponentSerializerImpl.deserializeSignedInt(in));
+        Assertions.assertEquals(i, BinaryComponentSerializerImpl.deserializeSignedInt(new DataBinaryInput(in)));
     }
 
     @Test
@@ -56,15 +55,14 @@ public class IntSerializeTest {
     }
 
     public void varIntTestForInt(int i) throws IOException {
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        DataOutputStream out = new DataOutputStream(baos);
+        ScratchBuffer out = new ScratchBuffer();
 
         BinaryComponentSerializerImpl.serializeVarInt(i, out);
 
-        ByteArrayInputStream bais = new ByteArrayInputStream(baos.toByteArray());
+        ByteArrayInputStream bais = new ByteArrayInputStream(out.toByteArray());
         DataInputStream in = new DataInputStream(bais);
 
-        Assertions.assertEquals(i, BinaryComponentSerializerImpl.deserializeVarInt(in));
+        Assertions.assertEquals(i, BinaryComponentSerializerImpl.deserializeVarInt(new DataBinaryInput(in)));
     }
 
 }
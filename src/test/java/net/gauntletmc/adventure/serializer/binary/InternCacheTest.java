@@ -0,0 +1,53 @@
+package net.gauntletmc.adventure.serializer.binary;
+
+import net.kyori.adventure.key.Key;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.TranslatableComponent;
+import net.kyori.adventure.text.format.Style;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+class InternCacheTest {
+    private static final Key FONT = Key.key("minecraft", "uniform");
+
+    @Test
+    void testSharesKeysAndTranslationKeys() throws IOException {
+        BinaryComponentSerializer serializer = BinaryComponentSerializer.builder()
+                .internStrings(256)
+                .build();
+
+        Component component = Component.translatable("chat.type.text").style(Style.style().font(FONT).build());
+        byte[] serialized = serializer.serialize(component);
+
+        Component first = serializer.deserialize(serialized);
+        Component second = serializer.deserialize(serialized);
+
+        Assertions.assertEquals(component, first);
+        Assertions.assertEquals(component, second);
+        Assertions.assertNotSame(first, second);
+
+        Assertions.assertSame(first.style().font(), second.style().font());
+        Assertions.assertSame(((TranslatableComponent) first).key(), ((TranslatableComponent) second).key());
+    }
+
+    @Test
+    void testCollisionsStillDecodeCorrectly() {
+        InternCache cache = new InternCache(1);
+
+        for (int i = 0; i < 100; i++) {
+            byte[] bytes = ("string" + i).getBytes();
+            Assertions.assertEquals("string" + i, cache.string(bytes, 0, bytes.length));
+            Assertions.assertEquals(Key.key("ns" + i, "value"), cache.key("ns" + i, "value"));
+        }
+    }
+
+    @Test
+    void testRejectsTooManyEntries() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> BinaryComponentSerializer.builder().internStrings(InternCache.MAX_ENTRIES + 1));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> BinaryComponentSerializer.builder().internStrings(Integer.MAX_VALUE));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> BinaryComponentSerializer.builder().internStrings(-1));
+    }
+
+}
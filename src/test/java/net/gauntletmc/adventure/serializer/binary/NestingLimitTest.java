@@ -0,0 +1,106 @@
+package net.gauntletmc.adventure.serializer.binary;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.event.HoverEvent;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+class NestingLimitTest {
+
+    private static Component nested(int depth) {
+        Component component = Component.text("leaf");
+        for (int i = 1; i < depth; i++) {
+            component = Component.text().content("level").append(component).build();
+        }
+        return component;
+    }
+
+    private static int depth(Component component) {
+        int depth = 1;
+        while (!component.children().isEmpty()) {
+            component = component.children().get(0);
+            depth++;
+        }
+        return depth;
+    }
+
+    @Test
+    void testDeepTree() throws IOException {
+        // Far deeper than recursion would get with the default thread stack
+        Component component = nested(100_000);
+
+        byte[] bytes = BinaryComponentSerializer.INSTANCE.serialize(component);
+        Component result = BinaryComponentSerializer.INSTANCE.deserialize(bytes);
+
+        Assertions.assertEquals(100_000, depth(result));
+        Assertions.assertEquals(bytes.length, BinaryComponentSerializer.INSTANCE.serializedSize(component));
+
+        // Walking the payload in place doesn't recurse either
+        Assertions.assertTrue(BinaryComponentSerializer.INSTANCE.validate(bytes));
+        Assertions.assertEquals(bytes.length, BinaryComponentSerializer.INSTANCE.skipComponent(ByteBuffer.wrap(bytes)));
+        Assertions.assertEquals("level".repeat(99_999) + "leaf", BinaryComponentSerializer.INSTANCE.plainText(bytes));
+
+        EncodedComponentView view = BinaryComponentSerializer.INSTANCE.view(bytes).index();
+        for (int i = 1; i < 100_000; i++) {
+            view = view.child(0);
+        }
+        Assertions.assertEquals("leaf", view.content());
+    }
+
+    @Test
+    void testDeepTreeWithSubtreeTable() throws IOException {
+        BinaryComponentSerializer serializer = BinaryComponentSerializer.builder().subtreeTable(true).build();
+        Component component = nested(100_000);
+
+        byte[] bytes = serializer.serialize(component);
+        Assertions.assertEquals(100_000, depth(serializer.deserialize(bytes)));
+        Assertions.assertEquals(bytes.length, serializer.serializedSize(component));
+        Assertions.assertTrue(serializer.validate(bytes));
+    }
+
+    @Test
+    void testMaxDepth() throws IOException {
+        BinaryComponentSerializer limited = BinaryComponentSerializer.builder().maxDepth(10).build();
+
+        Assertions.assertEquals(10, depth(limited.deserialize(limited.serialize(nested(10)))));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> limited.serialize(nested(11)));
+
+        byte[] deep = BinaryComponentSerializer.INSTANCE.serialize(nested(11));
+        Assertions.assertThrows(IllegalStateException.class, () -> limited.deserialize(deep));
+        Assertions.assertFalse(limited.validate(deep));
+        Assertions.assertThrows(IllegalStateException.class, () -> limited.plainText(deep));
+        Assertions.assertThrows(IllegalStateException.class, () -> limited.visit(deep, new ComponentVisitor() {}));
+
+        // Hover texts nest as well
+        Component hover = Component.text("hover").hoverEvent(HoverEvent.showText(nested(10)));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> limited.serialize(hover));
+        Assertions.assertThrows(IllegalStateException.class, () -> limited.deserialize(BinaryComponentSerializer.INSTANCE.serialize(hover)));
+    }
+
+    @Test
+    void testMaxNodes() throws IOException {
+        BinaryComponentSerializer limited = BinaryComponentSerializer.builder().maxNodes(5).build();
+
+        Component five = Component.text().content("a")
+                .append(Component.text("b"), Component.text("c"), Component.translatable("d", Component.text("e")))
+                .build();
+        Assertions.assertEquals(five, limited.deserialize(limited.serialize(five)));
+
+        Component six = five.append(Component.text("f"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> limited.serialize(six));
+
+        byte[] bytes = BinaryComponentSerializer.INSTANCE.serialize(six);
+        Assertions.assertThrows(IllegalStateException.class, () -> limited.deserialize(bytes));
+        Assertions.assertFalse(limited.validate(bytes));
+    }
+
+    @Test
+    void testInvalidLimits() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> BinaryComponentSerializer.builder().maxDepth(0));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> BinaryComponentSerializer.builder().maxNodes(-1));
+    }
+
+}
@@ -0,0 +1,93 @@
+package net.gauntletmc.adventure.serializer.binary;
+
+import net.kyori.adventure.key.Key;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.event.ClickEvent;
+import net.kyori.adventure.text.event.HoverEvent;
+import net.kyori.adventure.text.format.NamedTextColor;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+
+class PlainTextTest {
+
+    private static final List<BinaryComponentSerializer> SERIALIZERS = List.of(
+            BinaryComponentSerializer.INSTANCE,
+            BinaryComponentSerializer.builder()
+                    .dictionary(StringDictionary.MINECRAFT)
+                    .styleTable(true)
+                    .subtreeTable(true)
+                    .build()
+    );
+
+    private static final Component HOVER = Component.text("hover text", NamedTextColor.GRAY);
+
+    private static void assertPlainText(String expected, Component component) throws IOException {
+        for (BinaryComponentSerializer serializer : SERIALIZERS) {
+            Assertions.assertEquals(expected, serializer.plainText(serializer.serialize(component)));
+        }
+    }
+
+    @Test
+    void testText() throws IOException {
+        assertPlainText("Hello world", Component.text()
+                .content("Hello ")
+                .append(Component.text("world", NamedTextColor.RED).hoverEvent(HoverEvent.showText(HOVER)))
+                .build());
+    }
+
+    @Test
+    void testNonAscii() throws IOException {
+        assertPlainText("grüße ✓ 🙂", Component.text("grüße ").append(Component.text("✓ 🙂")));
+    }
+
+    @Test
+    void testTranslatableAndKeybind() throws IOException {
+        assertPlainText("chat.type.text: key.jump", Component.text()
+                .append(Component.translatable("chat.type.text", Component.text("argument"), Component.text("skipped")))
+                .append(Component.text(": "))
+                .append(Component.keybind("key.jump"))
+                .build());
+    }
+
+    @Test
+    void testSkipsNbtAndScore() throws IOException {
+        assertPlainText("@a[b]", Component.text()
+                .append(Component.selector().pattern("@a").separator(Component.text("separator")).build())
+                .append(Component.text("["))
+                .append(Component.score("name", "objective"))
+                .append(Component.entityNBT().nbtPath("path").selector("@p").clickEvent(ClickEvent.runCommand("/run")).build())
+                .append(Component.storageNBT().nbtPath("path").storage(Key.key("storage")).build())
+                .append(Component.text("b]"))
+                .build());
+
+        // Only the NBT fields are skipped, children are flattened like those of any other component
+        assertPlainText("xy", Component.text()
+                .append(Component.entityNBT().nbtPath("path").selector("@p").separator(Component.text(", ")).build()
+                        .append(Component.text("x")))
+                .append(Component.blockNBT().nbtPath("path").localPos(1, 2, 3).build()
+                        .append(Component.storageNBT().nbtPath("path").storage(Key.key("storage")).build().append(Component.text("y"))))
+                .build());
+    }
+
+    @Test
+    void testRepeatedSubtrees() throws IOException {
+        Component name = Component.text("Player", NamedTextColor.GOLD).hoverEvent(HoverEvent.showText(HOVER));
+        assertPlainText("Player: Player", Component.text().append(name, Component.text(": "), name).build());
+    }
+
+    @Test
+    void testAdvancesBuffer() throws IOException {
+        for (BinaryComponentSerializer serializer : SERIALIZERS) {
+            byte[] bytes = serializer.serialize(Component.text("first").append(Component.text("ü")));
+            ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length + 1).put(bytes).put((byte) 42).flip();
+
+            Assertions.assertEquals("firstü", serializer.plainText(buffer));
+            Assertions.assertEquals(42, buffer.get());
+        }
+    }
+
+}
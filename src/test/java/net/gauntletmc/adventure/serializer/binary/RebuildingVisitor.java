@@ -0,0 +1,204 @@
+package net.gauntletmc.adventure.serializer.binary;
+
+import net.kyori.adventure.key.Key;
+import net.kyori.adventure.nbt.api.BinaryTagHolder;
+import net.kyori.adventure.text.*;
+import net.kyori.adventure.text.event.ClickEvent;
+import net.kyori.adventure.text.event.HoverEvent;
+import net.kyori.adventure.text.format.Style;
+import net.kyori.adventure.text.format.TextColor;
+import net.kyori.adventure.text.format.TextDecoration;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Builds the component back from the visitor events, proving no part of the payload is left unreported
+ */
+class RebuildingVisitor implements ComponentVisitor {
+
+    private static final class Frame {
+        private final Position position;
+        private ComponentBuilder<?, ?> builder;
+        // Instead of the builder for components of a codec
+        private @Nullable Component custom;
+        private @Nullable List<Component> children;
+        private @Nullable List<Component> args;
+        private Style.@Nullable Builder style;
+        private Key entityType;
+        private UUID entityId;
+
+        private Frame(Position position) {
+            this.position = position;
+        }
+    }
+
+    private final ArrayDeque<Frame> frames = new ArrayDeque<>();
+    private @Nullable Component result;
+
+    Component result() {
+        return this.result;
+    }
+
+    @Override
+    public boolean enterComponent(Position position) {
+        this.frames.push(new Frame(position));
+        return true;
+    }
+
+    @Override
+    public void text(String content) {
+        this.frames.peek().builder = Component.text().content(content);
+    }
+
+    @Override
+    public void translatable(String key, int argumentCount) {
+        this.frames.peek().builder = Component.translatable().key(key);
+        this.frames.peek().args = new ArrayList<>();
+    }
+
+    @Override
+    public void score(String name, String objective) {
+        this.frames.peek().builder = Component.score().name(name).objective(objective);
+    }
+
+    @Override
+    public void selector(String pattern) {
+        this.frames.peek().builder = Component.selector().pattern(pattern);
+    }
+
+    @Override
+    public void keybind(String keybind) {
+        this.frames.peek().builder = Component.keybind().keybind(keybind);
+    }
+
+    @Override
+    public void blockNbt(String nbtPath, boolean interpret) {
+        this.frames.peek().builder = Component.blockNBT().nbtPath(nbtPath).interpret(interpret);
+    }
+
+    @Override
+    public void blockNbtPos(BlockNBTComponent.Pos pos) {
+        ((BlockNBTComponent.Builder) this.frames.peek().builder).pos(pos);
+    }
+
+    @Override
+    public void entityNbt(String nbtPath, boolean interpret) {
+        this.frames.peek().builder = Component.entityNBT().nbtPath(nbtPath).interpret(interpret);
+    }
+
+    @Override
+    public void entityNbtSelector(String selector) {
+        ((EntityNBTComponent.Builder) this.frames.peek().builder).selector(selector);
+    }
+
+    @Override
+    public void storageNbt(String nbtPath, boolean interpret) {
+        this.frames.peek().builder = Component.storageNBT().nbtPath(nbtPath).interpret(interpret);
+    }
+
+    @Override
+    public void storageNbtKey(Key storage) {
+        ((StorageNBTComponent.Builder) this.frames.peek().builder).storage(storage);
+    }
+
+    @Override
+    public void custom(Component content) {
+        this.frames.peek().custom = content;
+        this.frames.peek().children = new ArrayList<>();
+    }
+
+    @Override
+    public void exitComponent() {
+        Frame frame = this.frames.pop();
+        if (frame.args != null) {
+            ((TranslatableComponent.Builder) frame.builder).args(frame.args);
+        }
+        Component component = frame.builder != null ? frame.builder.build()
+                : frame.children.isEmpty() ? frame.custom : frame.custom.children(frame.children);
+
+        Frame parent = this.frames.peek();
+        switch (frame.position) {
+            case ROOT -> this.result = component;
+            case CHILD -> {
+                if (parent.builder != null) {
+                    parent.builder.append(component);
+                } else {
+                    parent.children.add(component);
+                }
+            }
+            case TRANSLATABLE_ARGUMENT -> parent.args.add(component);
+            case SEPARATOR -> {
+                if (parent.builder instanceof SelectorComponent.Builder selector) {
+                    selector.separator(component);
+                } else {
+                    ((NBTComponentBuilder<?, ?>) parent.builder).separator(component);
+                }
+            }
+            case HOVER_TEXT -> parent.style.hoverEvent(HoverEvent.showText(component));
+            case ENTITY_NAME -> parent.style.hoverEvent(HoverEvent.showEntity(HoverEvent.ShowEntity.of(parent.entityType, parent.entityId, component)));
+        }
+    }
+
+    @Override
+    public boolean enterStyle() {
+        this.frames.peek().style = Style.style();
+        return true;
+    }
+
+    @Override
+    public void decoration(TextDecoration decoration, TextDecoration.State state) {
+        this.frames.peek().style.decoration(decoration, state);
+    }
+
+    @Override
+    public void color(int rgb) {
+        this.frames.peek().style.color(TextColor.color(rgb));
+    }
+
+    @Override
+    public void font(Key font) {
+        this.frames.peek().style.font(font);
+    }
+
+    @Override
+    public void insertion(String insertion) {
+        this.frames.peek().style.insertion(insertion);
+    }
+
+    @Override
+    public void clickEvent(ClickEvent.Action action, String value) {
+        this.frames.peek().style.clickEvent(ClickEvent.clickEvent(action, value));
+    }
+
+    @Override
+    public void showItem(Key item, int count, @Nullable String nbt) {
+        HoverEvent.ShowItem showItem = nbt == null
+                ? HoverEvent.ShowItem.of(item, count)
+                : HoverEvent.ShowItem.of(item, count, BinaryTagHolder.binaryTagHolder(nbt));
+        this.frames.peek().style.hoverEvent(HoverEvent.showItem(showItem));
+    }
+
+    @Override
+    public void showEntity(Key type, UUID id) {
+        Frame frame = this.frames.peek();
+        frame.entityType = type;
+        frame.entityId = id;
+        frame.style.hoverEvent(HoverEvent.showEntity(HoverEvent.ShowEntity.of(type, id)));
+    }
+
+    @Override
+    public void exitStyle() {
+        Frame frame = this.frames.peek();
+        if (frame.builder != null) {
+            frame.builder.style(frame.style.build());
+        } else {
+            frame.custom = frame.custom.style(frame.style.build());
+        }
+        frame.style = null;
+    }
+
+}
@@ -0,0 +1,55 @@
+package net.gauntletmc.adventure.serializer.binary;
+
+import net.kyori.adventure.text.Component;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+class ScratchBufferTest {
+
+    @Test
+    void testReusedOnSameThread() {
+        ScratchBuffer first = ScratchBuffer.acquire();
+        ScratchBuffer.release(first);
+
+        ScratchBuffer second = ScratchBuffer.acquire();
+        ScratchBuffer.release(second);
+
+        Assertions.assertSame(first, second);
+    }
+
+    @Test
+    void testReentrantAcquire() {
+        ScratchBuffer outer = ScratchBuffer.acquire();
+        ScratchBuffer inner = ScratchBuffer.acquire();
+
+        Assertions.assertNotSame(outer, inner);
+        // Dropped on release instead of ending up in the pool meant for virtual threads
+        Assertions.assertEquals(ScratchBuffer.Origin.NONE, inner.origin);
+
+        ScratchBuffer.release(inner);
+        ScratchBuffer.release(outer);
+
+        // The thread local buffer is free again, the dropped one is never handed out
+        ScratchBuffer next = ScratchBuffer.acquire();
+        Assertions.assertSame(outer, next);
+        ScratchBuffer.release(next);
+    }
+
+    @Test
+    void testShrinksAfterOversizedMessage() throws IOException {
+        String huge = "a".repeat(1024 * 1024);
+        byte[] serialized = BinaryComponentSerializer.INSTANCE.serialize(Component.text(huge));
+        Assertions.assertEquals(Component.text(huge), BinaryComponentSerializer.INSTANCE.deserialize(serialized));
+
+        ScratchBuffer scratch = ScratchBuffer.acquire();
+        try {
+            Assertions.assertEquals(0, scratch.size());
+            Assertions.assertTrue(scratch.array().length < serialized.length);
+        } finally {
+            ScratchBuffer.release(scratch);
+        }
+    }
+
+}
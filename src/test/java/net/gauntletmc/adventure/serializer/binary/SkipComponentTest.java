@@ -0,0 +1,82 @@
+package net.gauntletmc.adventure.serializer.binary;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.event.ClickEvent;
+import net.kyori.adventure.text.event.HoverEvent;
+import net.kyori.adventure.text.format.NamedTextColor;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+
+class SkipComponentTest {
+
+    private static final BinaryComponentSerializer TABLES = BinaryComponentSerializer.builder()
+            .dictionary(StringDictionary.MINECRAFT)
+            .styleTable(true)
+            .subtreeTable(true)
+            .build();
+
+    private static final List<Component> COMPONENTS = List.of(
+            Component.text("first", NamedTextColor.RED),
+            Component.translatable("chat.type.text", Component.text("Player"), Component.text("hi")),
+            Component.text()
+                    .append(Component.text("a").hoverEvent(HoverEvent.showText(Component.text("hover"))))
+                    .append(Component.text("a").hoverEvent(HoverEvent.showText(Component.text("hover"))))
+                    .clickEvent(ClickEvent.suggestCommand("/msg "))
+                    .build()
+    );
+
+    @Test
+    void testSplitsConcatenatedPayloads() throws IOException {
+        for (BinaryComponentSerializer serializer : List.of(BinaryComponentSerializer.INSTANCE, TABLES)) {
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            DataOutputStream output = new DataOutputStream(baos);
+            for (Component component : COMPONENTS) {
+                serializer.serializeComponent(component, output);
+            }
+
+            ByteBuffer buffer = ByteBuffer.wrap(baos.toByteArray());
+            for (Component component : COMPONENTS) {
+                int start = buffer.position();
+                int skipped = serializer.skipComponent(buffer);
+
+                Assertions.assertEquals(serializer.serializedSize(component), skipped);
+                Assertions.assertEquals(component, serializer.deserialize(Arrays.copyOfRange(buffer.array(), start, start + skipped)));
+            }
+            Assertions.assertFalse(buffer.hasRemaining());
+        }
+    }
+
+    @Test
+    void testRejectsTruncated() throws IOException {
+        for (Component component : COMPONENTS) {
+            byte[] bytes = TABLES.serialize(component);
+            for (int length = 0; length < bytes.length; length++) {
+                Assertions.assertFalse(TABLES.validate(Arrays.copyOf(bytes, length)));
+            }
+        }
+    }
+
+    @Test
+    void testRejectsMalformed() throws IOException {
+        byte[] bytes = BinaryComponentSerializer.INSTANCE.serialize(Component.text("text"));
+
+        byte[] trailing = Arrays.copyOf(bytes, bytes.length + 1);
+        Assertions.assertFalse(BinaryComponentSerializer.INSTANCE.validate(trailing));
+
+        byte[] version = bytes.clone();
+        version[0] = 42;
+        Assertions.assertFalse(BinaryComponentSerializer.INSTANCE.validate(version));
+
+        byte[] type = bytes.clone();
+        type[1] = 42;
+        Assertions.assertFalse(BinaryComponentSerializer.INSTANCE.validate(type));
+    }
+
+}
@@ -0,0 +1,121 @@
+package net.gauntletmc.adventure.serializer.binary;
+
+import net.kyori.adventure.key.Key;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.event.ClickEvent;
+import net.kyori.adventure.text.event.HoverEvent;
+import net.kyori.adventure.text.format.NamedTextColor;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+class StreamingDecoderTest {
+
+    private static final BinaryComponentSerializer TABLES = BinaryComponentSerializer.builder()
+            .dictionary(StringDictionary.MINECRAFT)
+            .styleTable(true)
+            .subtreeTable(true)
+            .build();
+
+    private static List<Component> messages() {
+        List<Component> messages = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            messages.add(Component.text()
+                    .append(Component.text("Player" + i, NamedTextColor.GOLD)
+                            .hoverEvent(HoverEvent.showEntity(HoverEvent.ShowEntity.of(Key.key("player"), new UUID(i, i), Component.text("Player" + i))))
+                            .clickEvent(ClickEvent.suggestCommand("/msg Player" + i + " ")))
+                    .append(Component.translatable("chat.type.text", Component.text("hello ".repeat(i))))
+                    .build());
+        }
+        return messages;
+    }
+
+    private static byte[] stream(BinaryComponentSerializer serializer, List<Component> messages) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        DataOutputStream output = new DataOutputStream(baos);
+        for (Component message : messages) {
+            serializer.serializeComponent(message, output);
+        }
+        return baos.toByteArray();
+    }
+
+    private static List<Component> drain(StreamingComponentDecoder decoder) {
+        List<Component> result = new ArrayList<>();
+        Component component;
+        while ((component = decoder.poll()) != null) {
+            result.add(component);
+        }
+        return result;
+    }
+
+    @Test
+    void testRandomChunks() throws IOException {
+        for (BinaryComponentSerializer serializer : List.of(BinaryComponentSerializer.INSTANCE, TABLES)) {
+            byte[] bytes = stream(serializer, messages());
+            Random random = new Random(42);
+
+            StreamingComponentDecoder decoder = serializer.streamingDecoder();
+            List<Component> result = new ArrayList<>();
+            for (int offset = 0; offset < bytes.length; ) {
+                int length = Math.min(bytes.length - offset, random.nextInt(64));
+                ByteBuffer chunk = random.nextBoolean() ? ByteBuffer.allocateDirect(length) : ByteBuffer.allocate(length);
+                chunk.put(bytes, offset, length).flip();
+
+                decoder.feed(chunk);
+                Assertions.assertFalse(chunk.hasRemaining());
+
+                offset += length;
+                result.addAll(drain(decoder));
+            }
+
+            Assertions.assertEquals(messages(), result);
+            Assertions.assertFalse(decoder.hasPartial());
+        }
+    }
+
+    @Test
+    void testChannel() throws IOException {
+        byte[] bytes = stream(TABLES, messages());
+        ReadableByteChannel channel = Channels.newChannel(new ByteArrayInputStream(bytes));
+
+        StreamingComponentDecoder decoder = TABLES.streamingDecoder();
+        while (decoder.read(channel) >= 0) {
+            // Keep reading until the end of the stream
+        }
+
+        Assertions.assertEquals(messages(), drain(decoder));
+        Assertions.assertFalse(decoder.hasPartial());
+    }
+
+    @Test
+    void testPartial() throws IOException {
+        byte[] bytes = TABLES.serialize(messages().get(3));
+
+        StreamingComponentDecoder decoder = TABLES.streamingDecoder();
+        decoder.feed(bytes, 0, bytes.length - 1);
+
+        Assertions.assertNull(decoder.poll());
+        Assertions.assertTrue(decoder.hasPartial());
+
+        decoder.feed(bytes, bytes.length - 1, 1);
+        Assertions.assertEquals(messages().get(3), decoder.poll());
+    }
+
+    @Test
+    void testRejectsWrongVersion() {
+        StreamingComponentDecoder decoder = TABLES.streamingDecoder();
+        Assertions.assertThrows(IllegalStateException.class, () -> decoder.feed(new byte[] { 42, 0, 0 }, 0, 3));
+    }
+
+}
@@ -0,0 +1,70 @@
+package net.gauntletmc.adventure.serializer.binary;
+
+import net.kyori.adventure.key.Key;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.TranslatableComponent;
+import net.kyori.adventure.text.event.HoverEvent;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.UUID;
+
+class StringDictionaryTest extends ComponentTest {
+    private static final BinaryComponentSerializer MINECRAFT = BinaryComponentSerializer.builder()
+            .dictionary(StringDictionary.MINECRAFT)
+            .build();
+
+    private static final StringDictionary CUSTOM = StringDictionary.of(100, List.of("gauntlet.lobby.welcome", "gauntlet"));
+    private static final BinaryComponentSerializer CUSTOM_SERIALIZER = BinaryComponentSerializer.builder()
+            .dictionary(CUSTOM)
+            .build();
+
+    private static Component deathMessage() {
+        return Component.translatable("death.attack.player.item",
+                Component.text("Moulberry"),
+                Component.text("Dolores").hoverEvent(HoverEvent.showEntity(HoverEvent.ShowEntity.of(
+                        Key.key(Key.MINECRAFT_NAMESPACE, "pig"),
+                        new UUID(1, 2)
+                ))),
+                Component.translatable("item.minecraft.diamond_sword")
+                        .hoverEvent(HoverEvent.showItem(Key.key(Key.MINECRAFT_NAMESPACE, "diamond_sword"), 1, null)));
+    }
+
+    @Test
+    void testDeathMessage() {
+        this.test(deathMessage());
+        this.test(CUSTOM_SERIALIZER, deathMessage());
+    }
+
+    @Test
+    void testSmallerThanPlain() throws IOException {
+        Component component = deathMessage();
+        Assertions.assertTrue(MINECRAFT.serialize(component).length < BinaryComponentSerializer.INSTANCE.serialize(component).length);
+    }
+
+    @Test
+    void testResolvesToDictionaryInstance() throws IOException {
+        String key = StringDictionary.MINECRAFT.get(StringDictionary.MINECRAFT.indexOf("chat.type.text"));
+        Component result = MINECRAFT.deserialize(MINECRAFT.serialize(Component.translatable("chat.type.text")));
+
+        Assertions.assertSame(key, ((TranslatableComponent) result).key());
+    }
+
+    @Test
+    void testCustomDictionary() throws IOException {
+        Component component = Component.translatable("gauntlet.lobby.welcome", Component.text("gauntlet"));
+        byte[] serialized = CUSTOM_SERIALIZER.serialize(component);
+
+        Assertions.assertEquals(component, CUSTOM_SERIALIZER.deserialize(serialized));
+        Assertions.assertThrows(IllegalStateException.class, () -> BinaryComponentSerializer.INSTANCE.deserialize(serialized));
+    }
+
+    @Test
+    void testReservedIds() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> StringDictionary.of(StringDictionary.FIRST_CUSTOM_ID - 1, List.of("a")));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> StringDictionary.of(StringDictionary.FIRST_CUSTOM_ID, List.of("a", "a")));
+    }
+
+}
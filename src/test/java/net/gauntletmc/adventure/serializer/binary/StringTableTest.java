@@ -0,0 +1,60 @@
+package net.gauntletmc.adventure.serializer.binary;
+
+import net.kyori.adventure.key.Key;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.TextComponent;
+import net.kyori.adventure.text.event.ClickEvent;
+import net.kyori.adventure.text.event.HoverEvent;
+import net.kyori.adventure.text.format.NamedTextColor;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+class StringTableTest extends ComponentTest {
+    private static final BinaryComponentSerializer STRING_TABLE = BinaryComponentSerializer.builder()
+            .stringTable(true)
+            .build();
+
+    private static Component repetitive() {
+        TextComponent.Builder builder = Component.text();
+        for (int i = 0; i < 10; i++) {
+            builder.append(Component.text("[item]", NamedTextColor.AQUA)
+                    .hoverEvent(HoverEvent.showItem(Key.key(Key.MINECRAFT_NAMESPACE, "diamond_sword"), 1, null))
+                    .clickEvent(ClickEvent.openUrl("https://github.com")));
+            builder.append(Component.text(" "));
+        }
+        return builder.build();
+    }
+
+    @Test
+    void testRepeatedStrings() {
+        this.test(repetitive());
+    }
+
+    @Test
+    void testEmptyStrings() {
+        this.test(Component.text().append(Component.text("")).append(Component.text("")).build());
+    }
+
+    @Test
+    void testSmallerThanPlain() throws IOException {
+        Component component = repetitive();
+        Assertions.assertTrue(STRING_TABLE.serialize(component).length < BinaryComponentSerializer.INSTANCE.serialize(component).length);
+    }
+
+    @Test
+    void testLiteralLengthLimit() {
+        int max = BinaryComponentSerializerImpl.MAX_STRING_TABLE_VALUE;
+        Assertions.assertEquals(max << 1, BinaryComponentSerializerImpl.stringLiteral(max));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> BinaryComponentSerializerImpl.stringLiteral(max + 1));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> BinaryComponentSerializerImpl.stringLiteral(Integer.MAX_VALUE));
+    }
+
+    @Test
+    void testPlainDecoderReadsStringTable() throws IOException {
+        Component component = repetitive();
+        Assertions.assertEquals(component, BinaryComponentSerializer.INSTANCE.deserialize(STRING_TABLE.serialize(component)));
+    }
+
+}
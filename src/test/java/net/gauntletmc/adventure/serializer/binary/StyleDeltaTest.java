@@ -0,0 +1,88 @@
+package net.gauntletmc.adventure.serializer.binary;
+
+import net.kyori.adventure.key.Key;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.event.ClickEvent;
+import net.kyori.adventure.text.event.HoverEvent;
+import net.kyori.adventure.text.format.NamedTextColor;
+import net.kyori.adventure.text.format.Style;
+import net.kyori.adventure.text.format.TextDecoration;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+class StyleDeltaTest extends ComponentTest {
+    private static final BinaryComponentSerializer STYLE_DELTA = BinaryComponentSerializer.builder()
+            .styleDelta(true)
+            .build();
+
+    private static final Style GRAY_ITALIC = Style.style()
+            .color(NamedTextColor.GRAY)
+            .decoration(TextDecoration.ITALIC, true)
+            .font(Key.key("uniform"))
+            .clickEvent(ClickEvent.runCommand("/help"))
+            .hoverEvent(HoverEvent.showText(Component.text("Help", NamedTextColor.GOLD)))
+            .build();
+
+    // Every level repeats the style of the one above, like MiniMessage output does
+    private static Component repeating(int depth) {
+        Component component = Component.text("leaf", GRAY_ITALIC);
+        for (int i = 0; i < depth; i++) {
+            component = Component.text()
+                    .content("level " + i)
+                    .style(GRAY_ITALIC)
+                    .append(component)
+                    .append(Component.text("bold", GRAY_ITALIC.decoration(TextDecoration.BOLD, TextDecoration.State.TRUE)))
+                    .build();
+        }
+        return component;
+    }
+
+    @Test
+    void testRepeatedStyles() {
+        this.test(repeating(8));
+    }
+
+    @Test
+    void testPartialOverrides() {
+        Component component = Component.text()
+                .content("root")
+                .color(NamedTextColor.RED)
+                .decoration(TextDecoration.BOLD, true)
+                // No style of its own at all
+                .append(Component.text("plain"))
+                // Only repeats what it inherits from the root, not from its parent
+                .append(Component.text()
+                        .content("middle")
+                        .style(Style.style().insertion("insert").build())
+                        .append(Component.text("same color", NamedTextColor.RED))
+                        .append(Component.text("unset bold", Style.style().decoration(TextDecoration.BOLD, TextDecoration.State.NOT_SET).color(NamedTextColor.RED).build()))
+                        .append(Component.text("other", Style.style().color(NamedTextColor.BLUE).insertion("insert").build())))
+                .build();
+        this.test(component);
+    }
+
+    @Test
+    void testNestedComponentsDontInherit() {
+        Style style = Style.style().color(NamedTextColor.GREEN).decoration(TextDecoration.BOLD, true).build();
+        Component component = Component.text()
+                .content("host")
+                .style(style)
+                .hoverEvent(HoverEvent.showText(Component.text("hover", style)))
+                .append(Component.translatable()
+                        .key("chat.type.text")
+                        .style(style)
+                        .args(Component.text("argument", style), Component.text("child", style).append(Component.text("grandchild", style))))
+                .build();
+        this.test(component);
+    }
+
+    @Test
+    void testSmallerThanPlain() throws IOException {
+        Component component = repeating(8);
+        Assertions.assertTrue(STYLE_DELTA.serialize(component).length * 2 < BinaryComponentSerializer.INSTANCE.serialize(component).length);
+        Assertions.assertEquals(component, STYLE_DELTA.deserialize(STYLE_DELTA.serialize(component)));
+    }
+
+}
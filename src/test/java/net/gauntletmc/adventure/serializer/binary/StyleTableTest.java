@@ -0,0 +1,68 @@
+package net.gauntletmc.adventure.serializer.binary;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.TextComponent;
+import net.kyori.adventure.text.event.HoverEvent;
+import net.kyori.adventure.text.format.NamedTextColor;
+import net.kyori.adventure.text.format.Style;
+import net.kyori.adventure.text.format.TextDecoration;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+class StyleTableTest extends ComponentTest {
+    private static final BinaryComponentSerializer STYLE_TABLE = BinaryComponentSerializer.builder()
+            .styleTable(true)
+            .build();
+
+    private static final Style SHARED = Style.style()
+            .color(NamedTextColor.GOLD)
+            .decoration(TextDecoration.BOLD, true)
+            .hoverEvent(HoverEvent.showText(Component.text("hover", NamedTextColor.GOLD)))
+            .build();
+
+    private static Component repetitive() {
+        TextComponent.Builder builder = Component.text();
+        for (int i = 0; i < 20; i++) {
+            builder.append(Component.text(String.valueOf(i), SHARED));
+        }
+        return builder.build();
+    }
+
+    @Test
+    void testRepeatedStyles() {
+        this.test(repetitive());
+    }
+
+    @Test
+    void testSharesDecodedInstance() throws IOException {
+        Component result = STYLE_TABLE.deserialize(STYLE_TABLE.serialize(repetitive()));
+
+        Assertions.assertEquals(repetitive(), result);
+        Assertions.assertSame(result.children().get(0).style(), result.children().get(19).style());
+    }
+
+    @Test
+    void testSmallerThanPlain() throws IOException {
+        Component component = repetitive();
+        Assertions.assertTrue(STYLE_TABLE.serialize(component).length < BinaryComponentSerializer.INSTANCE.serialize(component).length);
+    }
+
+    @Test
+    void testNestedHoverReferencesBounded() throws IOException {
+        // Every style's hover text uses the one below twice, the second time as a reference walked again when visiting
+        // Adventure's hashCode of such a style is exponential as well, the depth is kept to what the style table can hash
+        Style style = Style.empty();
+        for (int i = 0; i < 18; i++) {
+            Component hover = Component.text().append(Component.text("a", style)).append(Component.text("b", style)).build();
+            style = Style.style().hoverEvent(HoverEvent.showText(hover)).build();
+        }
+        byte[] bytes = STYLE_TABLE.serialize(Component.text("x", style));
+
+        STYLE_TABLE.deserialize(bytes);
+        Assertions.assertEquals("x", STYLE_TABLE.plainText(bytes));
+        Assertions.assertThrows(IllegalStateException.class, () -> STYLE_TABLE.visit(bytes, new ComponentVisitor() {}));
+    }
+
+}
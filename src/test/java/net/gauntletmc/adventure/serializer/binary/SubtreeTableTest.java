@@ -0,0 +1,71 @@
+package net.gauntletmc.adventure.serializer.binary;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.TextComponent;
+import net.kyori.adventure.text.event.HoverEvent;
+import net.kyori.adventure.text.format.NamedTextColor;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+class SubtreeTableTest extends ComponentTest {
+    private static final BinaryComponentSerializer SUBTREE_TABLE = BinaryComponentSerializer.builder()
+            .subtreeTable(true)
+            .build();
+
+    private static final Component SEPARATOR = Component.text(" | ", NamedTextColor.DARK_GRAY);
+
+    private static Component scoreboard() {
+        Component hover = Component.text("Click to spectate", NamedTextColor.GRAY)
+                .append(Component.newline())
+                .append(Component.text("Shift click to follow", NamedTextColor.GRAY));
+
+        TextComponent.Builder builder = Component.text();
+        for (int i = 0; i < 10; i++) {
+            builder.append(Component.text("Player" + i).hoverEvent(HoverEvent.showText(hover)));
+            builder.append(SEPARATOR);
+            builder.append(Component.selector().pattern("@a[team=red]").separator(Component.text(", ", NamedTextColor.DARK_GRAY)));
+            builder.append(Component.text(" | ", NamedTextColor.DARK_GRAY));
+        }
+        return builder.build();
+    }
+
+    @Test
+    void testRepeatedSubtrees() {
+        this.test(scoreboard());
+    }
+
+    @Test
+    void testSharesDecodedInstance() throws IOException {
+        Component result = SUBTREE_TABLE.deserialize(SUBTREE_TABLE.serialize(scoreboard()));
+
+        Assertions.assertEquals(scoreboard(), result);
+        Assertions.assertSame(result.children().get(1), result.children().get(5));
+        Assertions.assertSame(result.children().get(1), result.children().get(3));
+        Assertions.assertSame(result.children().get(0).style().hoverEvent().value(), result.children().get(4).style().hoverEvent().value());
+    }
+
+    @Test
+    void testSmallerThanPlain() throws IOException {
+        Component component = scoreboard();
+        Assertions.assertTrue(SUBTREE_TABLE.serialize(component).length < BinaryComponentSerializer.INSTANCE.serialize(component).length);
+    }
+
+    @Test
+    void testNestedReferencesBounded() throws IOException {
+        // Every level references the one below twice, walked again every time that's 2^64 components in a few hundred bytes
+        Component component = Component.text("x");
+        for (int i = 0; i < 64; i++) {
+            component = Component.text().append(component).append(component).build();
+        }
+        byte[] bytes = SUBTREE_TABLE.serialize(component);
+
+        Component result = SUBTREE_TABLE.deserialize(bytes);
+        Assertions.assertSame(result.children().get(0), result.children().get(1));
+        SUBTREE_TABLE.validate(bytes);
+        Assertions.assertThrows(IllegalStateException.class, () -> SUBTREE_TABLE.plainText(bytes));
+        Assertions.assertThrows(IllegalStateException.class, () -> SUBTREE_TABLE.visit(bytes, new ComponentVisitor() {}));
+    }
+
+}
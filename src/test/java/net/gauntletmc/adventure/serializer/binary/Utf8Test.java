@@ -0,0 +1,40 @@
+package net.gauntletmc.adventure.serializer.binary;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+class Utf8Test {
+
+    private static final String[] STRINGS = {
+            "",
+            "minecraft",
+            "Hello, world.",
+            "h\u00E9llo w\u00F6rld",
+            "\u00FF\u0100\u07FF\u0800\uFFFF",
+            "music \uD834\uDD1E note",
+            "lone high \uD834 surrogate",
+            "lone low \uDD1E surrogate",
+            "trailing high \uD834"
+    };
+
+    @Test
+    void testMatchesGetBytes() throws IOException {
+        for (String string : STRINGS) {
+            byte[] expected = string.getBytes(StandardCharsets.UTF_8);
+
+            Assertions.assertEquals(expected.length, Utf8.encodedLength(string));
+
+            byte[] actual = new byte[expected.length];
+            Assertions.assertEquals(expected.length, Utf8.encode(string, actual, 0));
+            Assertions.assertArrayEquals(expected, actual);
+
+            ScratchBuffer scratch = new ScratchBuffer();
+            Utf8.encode(string, scratch);
+            Assertions.assertArrayEquals(expected, scratch.toByteArray());
+        }
+    }
+
+}
@@ -0,0 +1,90 @@
+package net.gauntletmc.adventure.serializer.binary;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.event.HoverEvent;
+import net.kyori.adventure.text.format.NamedTextColor;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+class VisitorTest {
+
+    private static final BinaryComponentSerializer TABLES = BinaryComponentSerializer.builder()
+            .dictionary(StringDictionary.MINECRAFT)
+            .styleTable(true)
+            .subtreeTable(true)
+            .build();
+
+    private static final Component HOVER = Component.text("secret hover", NamedTextColor.GRAY);
+
+    private static Component message() {
+        return Component.text()
+                .append(Component.text("Player", NamedTextColor.GOLD).hoverEvent(HoverEvent.showText(HOVER)))
+                .append(Component.text(": "))
+                .append(Component.text("hello", NamedTextColor.GOLD).hoverEvent(HoverEvent.showText(HOVER)))
+                .append(Component.text(": "))
+                .build();
+    }
+
+    /**
+     * Collects the text of every component outside of styles
+     */
+    private static final class TextCollector implements ComponentVisitor {
+        private final List<String> texts = new ArrayList<>();
+        private int styles = 0;
+
+        @Override
+        public void text(String content) {
+            this.texts.add(content);
+        }
+
+        @Override
+        public boolean enterStyle() {
+            this.styles++;
+            return false;
+        }
+    }
+
+    @Test
+    void testSkipsStyles() throws IOException {
+        for (BinaryComponentSerializer serializer : List.of(BinaryComponentSerializer.INSTANCE, TABLES)) {
+            TextCollector collector = new TextCollector();
+            serializer.visit(serializer.serialize(message()), collector);
+
+            Assertions.assertEquals(List.of("", "Player", ": ", "hello", ": "), collector.texts);
+            Assertions.assertEquals(2, collector.styles);
+        }
+    }
+
+    @Test
+    void testSkipsComponents() throws IOException {
+        List<String> texts = new ArrayList<>();
+        TABLES.visit(TABLES.serialize(message()), new ComponentVisitor() {
+            @Override
+            public boolean enterComponent(Position position) {
+                return position != Position.CHILD;
+            }
+
+            @Override
+            public void text(String content) {
+                texts.add(content);
+            }
+        });
+
+        Assertions.assertEquals(List.of(""), texts);
+    }
+
+    @Test
+    void testAdvancesBuffer() throws IOException {
+        byte[] bytes = TABLES.serialize(message());
+        ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length + 1).put(bytes).put((byte) 42).flip();
+
+        TABLES.visit(buffer, new ComponentVisitor() {});
+        Assertions.assertEquals(42, buffer.get());
+    }
+
+}